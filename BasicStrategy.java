@@ -0,0 +1,130 @@
+
+class BasicStrategy implements Strategy {
+
+	private final static byte HIT = 0;
+	private final static byte STAND = 1;
+	private final static byte DOUBLE_HIT = 2;
+	private final static byte DOUBLE_STAND = 3;
+	private final static byte SPLIT = 4;
+
+	private final static int COLUMNS = 10;
+	private final static int HARD = -4;
+	private final static int SOFT = 18 - 12;
+	private final static int PAIR = 28 - 1;
+
+	// Columns are the dealer's up-card 2-10 then Ace. Rows: hard 4-21, soft 12-21, pairs A-10.
+	// Multi-deck, dealer stands on soft 17, double after split; the rows below replace these for other rules.
+	private final static String[] CHART = {
+			"HHHHHHHHHH", "HHHHHHHHHH", "HHHHHHHHHH", "HHHHHHHHHH", "HHHHHHHHHH",
+			"HDDDDHHHHH", "DDDDDDDDHH", "DDDDDDDDDH", "HHSSSHHHHH", "SSSSSHHHHH",
+			"SSSSSHHHHH", "SSSSSHHHHH", "SSSSSHHHHH", "SSSSSSSSSS", "SSSSSSSSSS",
+			"SSSSSSSSSS", "SSSSSSSSSS", "SSSSSSSSSS",
+
+			"HHHHHHHHHH", "HHHDDHHHHH", "HHHDDHHHHH", "HHDDDHHHHH", "HHDDDHHHHH",
+			"HDDDDHHHHH", "SssssSSHHH", "SSSSSSSSSS", "SSSSSSSSSS", "SSSSSSSSSS",
+
+			"PPPPPPPPPP", "PPPPPPHHHH", "PPPPPPHHHH", "HHHPPHHHHH", "DDDDDDDDHH",
+			"PPPPPHHHHH", "PPPPPPHHHH", "PPPPPPPPPP", "PPPPPSPPSS", "SSSSSSSSSS"
+	};
+
+	// Without double after split, low pairs are split against fewer up-cards: 2s and 3s against 4-7, 6s against 3-6, never 4s.
+	private final static String[] NO_DAS = {
+			"pair2", "HHPPPPHHHH", "pair3", "HHPPPPHHHH", "pair4", "HHHHHHHHHH", "pair6", "HPPPPHHHHH"
+	};
+
+	// When the dealer hits soft 17: double 11 against an Ace, soft 18 against 2 and soft 19 against 6.
+	private final static String[] H17 = {
+			"hard11", "DDDDDDDDDD", "soft18", "sssssSSHHH", "soft19", "SSSSsSSSSS"
+	};
+
+	private final boolean hitSoft17;
+	private final byte[] table = new byte[CHART.length * COLUMNS];
+
+	BasicStrategy() {
+		this(new RuleSet());
+	}
+
+	BasicStrategy(RuleSet rules) {
+		this.hitSoft17 = rules.hitSoft17();
+		String[] chart = CHART.clone();
+		if (!rules.doubleAfterSplit()) {
+			replace(chart, NO_DAS);
+		}
+		if (rules.hitSoft17()) {
+			replace(chart, H17);
+		}
+		for (int row = 0; row < chart.length; row++) {
+			for (int column = 0; column < COLUMNS; column++) {
+				char action = chart[row].charAt(column);
+				table[row * COLUMNS + column] = (action == 'S') ? STAND
+						: (action == 'D') ? DOUBLE_HIT
+						: (action == 's') ? DOUBLE_STAND
+						: (action == 'P') ? SPLIT
+						: HIT;
+			}
+		}
+	}
+
+	@Override
+	public boolean insurance(Hand hand, Card upCard) {
+		return false;
+	}
+
+	// Late surrender: hard 16 against 9, 10 and Ace, hard 15 against 10. Pairs of eights split instead.
+	// When the dealer hits soft 17, also hard 15 and 17 and eights against an Ace.
+	@Override
+	public boolean surrender(Hand hand, Card upCard) {
+		int up = upCard.getValue();
+		int value = hand.getHandValue();
+		if (hand.isSoft()) {
+			return false;
+		}
+		else if (hitSoft17 && up == 1) {
+			return (value >= 15 && value <= 17) && (!hand.canSplit() || value == 16);
+		}
+		else if (hand.canSplit()) {
+			return false;
+		}
+		return (value == 16 && (up >= 9 || up == 1)) || (value == 15 && up == 10);
+	}
+
+	@Override
+	public boolean splitAces(Hand hand, Card upCard) {
+		return split(hand, upCard);
+	}
+
+	@Override
+	public boolean split(Hand hand, Card upCard) {
+		return table[(PAIR + hand.getCard(0).getValue()) * COLUMNS + column(upCard)] == SPLIT;
+	}
+
+	@Override
+	public Move move(Hand hand, Card upCard, boolean canDouble) {
+		int row = hand.getHandValue() + (hand.isSoft() ? SOFT : HARD);
+		byte action = table[row * COLUMNS + column(upCard)];
+
+		if (action == STAND) {
+			return Move.STAND;
+		}
+		else if (action == DOUBLE_HIT || action == DOUBLE_STAND) {
+			return canDouble ? Move.DOUBLE : (action == DOUBLE_HIT) ? Move.HIT : Move.STAND;
+		}
+		return Move.HIT;
+	}
+
+	private static void replace(String[] chart, String[] rows) {
+		for (int i = 0; i < rows.length; i += 2) {
+			chart[row(rows[i])] = rows[i + 1];
+		}
+	}
+
+	// Chart row of a name such as "hard11", "soft18" or "pair6".
+	private static int row(String name) {
+		int value = Integer.parseInt(name.substring(4));
+		return name.startsWith("hard") ? value + HARD : name.startsWith("soft") ? value + SOFT : value + PAIR;
+	}
+
+	private static int column(Card upCard) {
+		return (upCard.getValue() + 8) % COLUMNS;
+	}
+}
@@ -0,0 +1,131 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+class Benchmark {
+
+	private final static int WARMUP_ITERATIONS = 5;
+	private final static int ITERATIONS = 5;
+	private final static int BATCH = 1024;
+	private final static long ITERATION_NANOS = TimeUnit.SECONDS.toNanos(1);
+	private final static long BET = Money.UNIT;
+	private final static long BANKROLL = Money.credits(1000000000000000L);
+
+	private final com.sun.management.ThreadMXBean threads =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	private final Deck deck = new Deck(42);
+	private final Dealer dealer = new Dealer();
+	private final Hand hand = new Hand();
+	private final Round round = new Round(new Deck(42), new Player(BANKROLL), new Dealer());
+	private final Round metered = new Round(new Deck(42), new Player(BANKROLL), new Dealer());
+	private final Round table = new Round(new Deck(6, 0.75, 42), seats(Round.MAX_SEATS), new Dealer(), null);
+	private final Strategy strategy = new BasicStrategy();
+	private long sink = 0;
+
+	Benchmark() {
+		metered.setMetrics(new Metrics());
+	}
+
+	public static void run() {
+		new Benchmark().runAll();
+	}
+
+	private void runAll() {
+		System.out.println(String.format("%-24s %16s %12s %14s", "Benchmark", "ops/s", "B/op", "MB/s"));
+		measure("deck.removeNextCard", new Runnable() {
+			@Override
+			public void run() {
+				sink += deck.removeNextCard().getCode();
+			}
+		});
+		measure("deck.reshuffleCycle", new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < 52; i++) {
+					sink += deck.removeNextCard().getCode();
+				}
+			}
+		});
+		measure("hand.dealAndHit", new Runnable() {
+			@Override
+			public void run() {
+				hand.deal(deck);
+				hand.addNextCard(deck);
+				sink += hand.getHandValue();
+			}
+		});
+		measure("dealer.playHand", new Runnable() {
+			@Override
+			public void run() {
+				hand.deal(deck);
+				dealer.setHand(hand);
+				dealer.playHand(deck);
+				sink += hand.getHandValue();
+			}
+		});
+		measure("round.play", new Runnable() {
+			@Override
+			public void run() {
+				round.play(BET, strategy);
+				sink += round.getPlayer(0).getHand(0).getHandValue();
+			}
+		});
+		measure("round.playMetered", new Runnable() {
+			@Override
+			public void run() {
+				metered.play(BET, strategy);
+				sink += metered.getPlayer(0).getHand(0).getHandValue();
+			}
+		});
+		measure("table.play7", new Runnable() {
+			@Override
+			public void run() {
+				table.play(BET, strategy);
+				sink += table.getDealerHand().getHandValue();
+			}
+		});
+		if (sink == 42) {
+			System.out.println();
+		}
+	}
+
+	private static Player[] seats(int count) {
+		Player[] players = new Player[count];
+		for (int seat = 0; seat < count; seat++) {
+			players[seat] = new Player(BANKROLL);
+		}
+		return players;
+	}
+
+	private void measure(String name, Runnable operation) {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			iterate(operation);
+		}
+
+		long threadId = Thread.currentThread().getId();
+		long operations = 0;
+		long elapsed = 0;
+		long allocated = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < ITERATIONS; i++) {
+			long startTime = System.nanoTime();
+			operations += iterate(operation);
+			elapsed += System.nanoTime() - startTime;
+		}
+		allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+
+		double seconds = elapsed / 1e9;
+		System.out.println(String.format("%-24s %16.0f %12.1f %14.1f", name, operations / seconds,
+				(double) allocated / operations, allocated / seconds / (1024 * 1024)));
+	}
+
+	private long iterate(Runnable operation) {
+		long operations = 0;
+		long startTime = System.nanoTime();
+		while (System.nanoTime() - startTime < ITERATION_NANOS) {
+			for (int i = 0; i < BATCH; i++) {
+				operation.run();
+			}
+			operations += BATCH;
+		}
+		return operations;
+	}
+}
@@ -0,0 +1,108 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// One row per seat per round, stored in blocks with each column contiguous. The outcome column packs
+// every hand the seat played, OUTCOME_BITS per hand, so split hands keep their own results.
+class ColumnFile implements Closeable {
+
+	public final static int MAGIC = 0x424A434C;
+	public final static short VERSION = 2;
+	public final static int HEADER_SIZE = 6;
+	public final static int BLOCK_ROWS = 4096;
+	public final static int ROW_BYTES = 4 + 2 + 8 + 8;
+	public final static int OUTCOME_BITS = 3;
+	public final static String SUFFIX = ".cols";
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(4 + BLOCK_ROWS * ROW_BYTES);
+	private final byte[] seats = new byte[BLOCK_ROWS];
+	private final byte[] categories = new byte[BLOCK_ROWS];
+	private final byte[] upCards = new byte[BLOCK_ROWS];
+	private final short[] outcomes = new short[BLOCK_ROWS];
+	private final byte[] hands = new byte[BLOCK_ROWS];
+	private final long[] stakes = new long[BLOCK_ROWS];
+	private final long[] deltas = new long[BLOCK_ROWS];
+	private int rows = 0;
+
+	ColumnFile(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+		buffer.flip();
+		write();
+	}
+
+	public void append(Round round, long bet) {
+		int upCard = round.getDealerHand().getUpCard().getValue();
+		for (int seat = 0; seat < round.getSeats(); seat++) {
+			Player player = round.getPlayer(seat);
+			long delta = 0;
+			int packed = 0;
+			for (int i = 0; i < player.getHandCount(); i++) {
+				Hand hand = player.getHand(i);
+				delta += hand.getWalletChange() - hand.getBet() - hand.getInsurance();
+				packed |= (hand.getOutcome() - Round.SURRENDER) << (OUTCOME_BITS * i);
+			}
+			seats[rows] = (byte) seat;
+			categories[rows] = (byte) round.getCategory(seat);
+			upCards[rows] = (byte) upCard;
+			outcomes[rows] = (short) packed;
+			hands[rows] = (byte) player.getHandCount();
+			stakes[rows] = bet;
+			deltas[rows] = delta;
+			if (++rows == BLOCK_ROWS) {
+				flush();
+			}
+		}
+	}
+
+	public static int outcome(int packed, int hand) {
+		return ((packed >>> (OUTCOME_BITS * hand)) & ((1 << OUTCOME_BITS) - 1)) + Round.SURRENDER;
+	}
+
+	@Override
+	public void close() throws IOException {
+		flush();
+		channel.close();
+	}
+
+	private void flush() {
+		if (rows == 0) {
+			return;
+		}
+		buffer.clear();
+		buffer.putInt(rows);
+		buffer.put(seats, 0, rows);
+		buffer.put(categories, 0, rows);
+		buffer.put(upCards, 0, rows);
+		for (int i = 0; i < rows; i++) {
+			buffer.putShort(outcomes[i]);
+		}
+		buffer.put(hands, 0, rows);
+		for (int i = 0; i < rows; i++) {
+			buffer.putLong(stakes[i]);
+		}
+		for (int i = 0; i < rows; i++) {
+			buffer.putLong(deltas[i]);
+		}
+		buffer.flip();
+		rows = 0;
+		try {
+			write();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void write() throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+
+class ColumnScanner {
+
+	private final Path directory;
+
+	ColumnScanner(Path directory) {
+		this.directory = directory;
+	}
+
+	public Statistics scan() throws IOException {
+		ArrayList<Path> files = new ArrayList<Path>();
+		try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, "*" + ColumnFile.SUFFIX)) {
+			for (Path path : paths) {
+				files.add(path);
+			}
+		}
+		Collections.sort(files);
+
+		Statistics statistics = new Statistics();
+		for (Path file : files) {
+			scan(file, statistics);
+		}
+		return statistics;
+	}
+
+	private void scan(Path file, Statistics statistics) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.limit() < ColumnFile.HEADER_SIZE || buffer.getInt(0) != ColumnFile.MAGIC
+				|| buffer.getShort(4) != ColumnFile.VERSION) {
+			throw new IOException("Not a column file: " + file);
+		}
+
+		long stake = 0;
+		long delta = 0;
+		boolean open = false;
+		int block = ColumnFile.HEADER_SIZE;
+		while (block + 4 <= buffer.limit()) {
+			int rows = buffer.getInt(block);
+			int seats = block + 4;
+			int categories = seats + rows;
+			int upCards = categories + rows;
+			int outcomes = upCards + rows;
+			int hands = outcomes + 2 * rows;
+			int stakes = hands + rows;
+			int deltas = stakes + 8 * rows;
+			if (deltas + 8 * rows > buffer.limit()) {
+				throw new IOException("Truncated column file: " + file);
+			}
+
+			for (int row = 0; row < rows; row++) {
+				if (buffer.get(seats + row) == 0 && open) {
+					statistics.recordRound(stake, delta);
+					stake = 0;
+					delta = 0;
+				}
+				int category = buffer.get(categories + row);
+				int upCard = buffer.get(upCards + row);
+				long rowStake = buffer.getLong(stakes + 8 * row);
+				long rowDelta = buffer.getLong(deltas + 8 * row);
+				statistics.recordSeat(category, upCard, rowStake, rowDelta);
+				int packed = buffer.getShort(outcomes + 2 * row);
+				for (int hand = 0; hand < buffer.get(hands + row); hand++) {
+					statistics.recordOutcome(category, upCard, ColumnFile.outcome(packed, hand));
+				}
+				stake += rowStake;
+				delta += rowDelta;
+				open = true;
+			}
+			block = deltas + 8 * rows;
+		}
+		if (open) {
+			statistics.recordRound(stake, delta);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+// Asks the player at the terminal for the round's decisions. Asking and answering are separate
+// calls so a game can wait for input between them without holding a thread.
+class ConsoleStrategy {
+
+	private final Terminal terminal;
+	private final Player player;
+
+	ConsoleStrategy(Terminal terminal, Player player) {
+		this.terminal = terminal;
+		this.player = player;
+	}
+
+	public void askInsurance(Hand hand) {
+		terminal.printHand("Your hand: ", hand, false);
+		terminal.println("The dealer shows an Ace. Do you want insurance? (y/n)");
+	}
+
+	public void ask(Round round) {
+		Hand hand = round.getTurnHand();
+		if (round.getDecision() == Round.Decision.MOVE) {
+			terminal.println(Game.LINE_BREAK);
+			int hands = player.getHandCount();
+			if (hands > 1 && hand.getMoveCount() == 0) {
+				terminal.println(Game.playingLabel(index(hand), hands));
+			}
+		}
+		terminal.printHand("Your hand: ", hand, false);
+		switch (round.getDecision()) {
+			case SURRENDER:
+				terminal.println("Do you want to surrender half your bet? (y/n)");
+				break;
+			case SPLIT_ACES:
+				terminal.println("You have a pair of Aces. Do you want to split? (y/n)");
+				break;
+			case SPLIT:
+				terminal.println("You have a pair. Do you want to split? (y/n)");
+				break;
+			default:
+				terminal.println(round.canDoubleDown()
+						? "Do you want to hit, stand, or double down? (h/s/d)"
+						: "Do you want to hit or stand? (h/s)");
+				break;
+		}
+	}
+
+	// Reads one answer and applies it to the round; false when the player has to answer again.
+	public boolean answer(Round round) {
+		Hand hand = round.getTurnHand();
+		if (round.getDecision() != Round.Decision.MOVE) {
+			int hands = player.getHandCount();
+			Boolean yes = terminal.readYesNo();
+			if (yes == null) {
+				return false;
+			}
+			round.decide(yes);
+			if (player.getHandCount() > hands) {
+				for (int i = 0; i < player.getHandCount(); i++) {
+					terminal.printHand(Game.handLabel(i, player.getHandCount()), player.getHand(i), false);
+				}
+			}
+			return true;
+		}
+
+		String input = terminal.next();
+		if (input.equals("h")) {
+			round.move(Strategy.Move.HIT);
+		}
+		else if (input.equals("s")) {
+			round.move(Strategy.Move.STAND);
+		}
+		else if (input.equals("d") && round.canDoubleDown()) {
+			round.move(Strategy.Move.DOUBLE);
+			terminal.printCredits("You now have ", player.getWallet(), " credit(s) remaining.");
+			terminal.printHand("Your hand: ", hand, false);
+		}
+		else {
+			terminal.println(round.canDoubleDown() ? "Enter either 'h' or 's' or 'd'." : "Enter either 'h' or 's'.");
+			return false;
+		}
+		if (hand.getBust()) {
+			terminal.println(Game.LINE_BREAK);
+			terminal.printHand("Your hand: ", hand, false);
+			terminal.println("Hand busts.");
+		}
+		return true;
+	}
+
+	private int index(Hand hand) {
+		int index = 0;
+		while (player.getHand(index) != hand) {
+			index++;
+		}
+		return index;
+	}
+}
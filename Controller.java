@@ -1,7 +1,255 @@
-
-class Controller {
-
-	public static void main(String[] args) {
-		Game.start();
-	}
-}
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+class Controller {
+
+	private final static String HISTORY = "history";
+	private final static String EDGE_CACHE = "house-edge.cache";
+	private final static long EDGE_SEED = 0;
+
+	public static void main(String[] args) {
+		if (args.length > 0 && args[0].equals("simulate")) {
+			simulate(args);
+		}
+		else if (args.length > 0 && args[0].equals("replay")) {
+			replay(args);
+		}
+		else if (args.length > 0 && args[0].equals("dealer")) {
+			dealer(args);
+		}
+		else if (args.length > 0 && args[0].equals("solve")) {
+			solve(args);
+		}
+		else if (args.length > 0 && args[0].equals("history")) {
+			history(args);
+		}
+		else if (args.length > 0 && args[0].equals("benchmark")) {
+			Benchmark.run();
+		}
+		else if (args.length > 0 && args[0].equals("server")) {
+			serve(args);
+		}
+		else if (args.length > 0 && args[0].equals("edge")) {
+			edge(args);
+		}
+		else if (args.length > 0 && args[0].equals("scan")) {
+			scan(args);
+		}
+		else if (args.length > 0 && args[0].equals("cluster")) {
+			cluster(args);
+		}
+		else if (args.length > 0 && args[0].equals("worker")) {
+			work(args);
+		}
+		else {
+			Terminal.Mode mode = (args.length > 2) ? Terminal.mode(args[2]) : Terminal.Mode.INTERACTIVE;
+			if (mode == null) {
+				System.out.println("Unknown mode \"" + args[2] + "\"; use " + Arrays.toString(Terminal.Mode.values()).toLowerCase());
+				return;
+			}
+			play(args.length > 0 && args[0].equals("auto"), rules(args, 1, "1"), mode);
+		}
+	}
+
+	// A rule it does not know ends the command with the accepted rules rather than a stack trace.
+	private static RuleSet rules(String[] args, int index, String defaults) {
+		try {
+			return RuleSet.parse((args.length > index) ? args[index] : defaults);
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage() + "; use comma-separated " + RuleSet.USAGE);
+			System.exit(1);
+			return null;
+		}
+	}
+
+	private static void play(boolean autoPlay, RuleSet rules, Terminal.Mode mode) {
+		HandLog log = null;
+		try {
+			log = new HandLog(Paths.get(HISTORY), "game");
+		} catch (IOException e) {
+			System.out.println("Hand history unavailable: " + e.getMessage());
+		}
+
+		Terminal terminal = new Terminal(System.in, System.out, mode);
+		try {
+			Game.start(terminal, autoPlay, log, rules);
+		} finally {
+			terminal.flush();
+			if (log != null) {
+				try {
+					log.close();
+				} catch (IOException e) {
+					System.out.println("Error closing hand history: " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	private static void serve(String[] args) {
+		int port = (args.length > 1) ? Integer.parseInt(args[1]) : 2121;
+		try {
+			new Server(port, rules(args, 2, "1")).run();
+		} catch (IOException e) {
+			System.out.println("Server error: " + e.getMessage());
+		}
+	}
+
+	private static void history(String[] args) {
+		String directory = (args.length > 1) ? args[1] : HISTORY;
+		try {
+			long startTime = System.nanoTime();
+			Statistics statistics = new HandLogReader(Paths.get(directory)).read();
+			long elapsed = System.nanoTime() - startTime;
+
+			System.out.println(statistics);
+			System.out.println("Time: " + (elapsed / 1000000) + " ms");
+		} catch (IOException e) {
+			System.out.println("Error reading hand history: " + e.getMessage());
+		}
+	}
+
+	private static void cluster(String[] args) {
+		long hands = (args.length > 1) ? Long.parseLong(args[1]) : 1000000;
+		int workers = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		long seed = (args.length > 3) ? Long.parseLong(args[3]) : System.currentTimeMillis();
+		RuleSet rules = rules(args, 4, "6");
+		int seats = (args.length > 5) ? Integer.parseInt(args[5]) : 1;
+
+		long startTime = System.nanoTime();
+		try {
+			Statistics statistics = new Coordinator(hands, workers, seed, rules, seats).run();
+			long elapsed = System.nanoTime() - startTime;
+
+			System.out.println(statistics);
+			System.out.println("Workers: " + workers + ", seed: " + seed + ", rules: " + rules + ", seats: " + seats);
+			System.out.println("Time: " + (elapsed / 1000000) + " ms (" + (long) (hands / (elapsed / 1e9)) + " rounds/s)");
+		} catch (IOException e) {
+			System.out.println("Cluster run failed: " + e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void work(String[] args) {
+		try {
+			Coordinator.work(Long.parseLong(args[1]), Long.parseLong(args[2]), RuleSet.parse(args[3]),
+					Integer.parseInt(args[4]), args[5]);
+		} catch (IOException e) {
+			System.err.println("Worker failed: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	private static void scan(String[] args) {
+		try {
+			long startTime = System.nanoTime();
+			Statistics statistics = new ColumnScanner(Paths.get(args[1])).scan();
+			long elapsed = System.nanoTime() - startTime;
+
+			System.out.println(statistics);
+			System.out.print(statistics.breakdown());
+			System.out.println("Time: " + (elapsed / 1000000) + " ms");
+		} catch (IOException e) {
+			System.out.println("Error scanning results: " + e.getMessage());
+		}
+	}
+
+	private static void simulate(String[] args) {
+		long hands = (args.length > 1) ? Long.parseLong(args[1]) : 1000000;
+		int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		long seed = (args.length > 3) ? Long.parseLong(args[3]) : System.currentTimeMillis();
+		RuleSet rules = rules(args, 4, "6");
+		int seats = (args.length > 5) ? Integer.parseInt(args[5]) : 1;
+		Simulation simulation = new Simulation(hands, threads, seed, rules);
+		simulation.setSeats(seats);
+		if (args.length > 6 && !args[6].equals("-")) {
+			simulation.setHistory(Paths.get(args[6]));
+		}
+		if (args.length > 7) {
+			simulation.setPrefetch(Integer.parseInt(args[7]));
+		}
+		if (args.length > 8 && !args[8].equals("-")) {
+			simulation.setColumns(Paths.get(args[8]));
+		}
+		// Metering costs throughput, so only runs that ask for it pay.
+		Metrics metrics = null;
+		if (args.length > 9 && args[9].equals("metrics")) {
+			metrics = new Metrics();
+			simulation.setMetrics(metrics);
+		}
+
+		long startTime = System.nanoTime();
+		Statistics statistics = simulation.run();
+		long elapsed = System.nanoTime() - startTime;
+
+		System.out.println(statistics);
+		if (metrics != null) {
+			System.out.print(metrics);
+		}
+		System.out.println("Threads: " + threads + ", seed: " + seed + ", rules: " + rules + ", seats: " + seats);
+		System.out.println("Time: " + (elapsed / 1000000) + " ms (" + (long) (hands / (elapsed / 1e9)) + " rounds/s)");
+	}
+
+	private static void replay(String[] args) {
+		long seed = Long.parseLong(args[1]);
+		long shard = Long.parseLong(args[2]);
+		long hands = (args.length > 3) ? Long.parseLong(args[3]) : Long.MAX_VALUE;
+		Simulation simulation = new Simulation(hands, 1, seed, rules(args, 4, "6"));
+		simulation.setSeats((args.length > 5) ? Integer.parseInt(args[5]) : 1);
+		try {
+			System.out.println(simulation.runShard(shard));
+		} catch (IOException e) {
+			System.out.println("Error replaying shard: " + e.getMessage());
+		}
+	}
+
+	private static void dealer(String[] args) {
+		RuleSet rules = rules(args, 1, "1");
+		DealerProbabilities probabilities = new DealerProbabilities(rules);
+
+		System.out.println(String.format("%-4s %8s %8s %8s %8s %8s %8s", "Up", "17", "18", "19", "20", "21", "Bust"));
+		for (int upCard = 1; upCard <= DealerProbabilities.RANKS; upCard++) {
+			int[] counts = DealerProbabilities.shoe(rules.getDecks());
+			counts[upCard - 1]--;
+			double[] distribution = probabilities.distribution(upCard, counts);
+			StringBuilder line = new StringBuilder(String.format("%-4s", (upCard == 1) ? "A" : String.valueOf(upCard)));
+			for (double probability : distribution) {
+				line.append(String.format(" %8.4f", probability));
+			}
+			System.out.println(line);
+		}
+	}
+
+	private static void solve(String[] args) {
+		RuleSet rules = rules(args, 1, "6");
+		int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		long startTime = System.nanoTime();
+		String table = new Solver(new DealerProbabilities(rules), rules).table(threads);
+		long elapsed = System.nanoTime() - startTime;
+
+		System.out.print(table);
+		System.out.println("Time: " + (elapsed / 1000000) + " ms");
+	}
+
+	private static void edge(String[] args) {
+		RuleSet rules = rules(args, 1, "6");
+		long rounds = (args.length > 2) ? Long.parseLong(args[2]) : 10000000;
+		int threads = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		try {
+			HouseEdgeCache cache = new HouseEdgeCache(Paths.get(EDGE_CACHE));
+			if (!cache.contains(rules, rounds)) {
+				Statistics statistics = new Simulation(rounds, threads, EDGE_SEED, rules).run();
+				cache.put(rules, rounds, statistics.getHouseEdge());
+			}
+			else {
+				System.out.println("(cached)");
+			}
+			System.out.println("Rules: " + rules);
+			System.out.println("House edge: " + (cache.getHouseEdge(rules) * 100) + "% over " + cache.getRounds(rules) + " rounds");
+		} catch (IOException e) {
+			System.out.println("Error reading house edge cache: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,153 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+// Runs simulation shards in separate worker JVMs and merges their results in shard order.
+class Coordinator {
+
+	private final static int MAX_ATTEMPTS = 3;
+	private final static int RECORD_SIZE = 8 + Statistics.BYTES;
+
+	private final long hands;
+	private final int workers;
+	private final long seed;
+	private final RuleSet rules;
+	private final int seats;
+
+	Coordinator(long hands, int workers, long seed, RuleSet rules, int seats) {
+		this.hands = hands;
+		this.workers = workers;
+		this.seed = seed;
+		this.rules = rules;
+		this.seats = seats;
+	}
+
+	public Statistics run() throws IOException, InterruptedException {
+		Statistics[] results = new Statistics[(int) Simulation.shards(hands)];
+		for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+			ArrayList<String> assignments = assign(results);
+			if (assignments.isEmpty()) {
+				break;
+			}
+			if (attempt > 1) {
+				System.err.println("Retrying shards " + assignments);
+			}
+
+			// Each worker writes to its own file so none of them stalls on a full pipe while another is read.
+			ArrayList<Process> processes = new ArrayList<Process>();
+			ArrayList<Path> outputs = new ArrayList<Path>();
+			try {
+				for (String shards : assignments) {
+					Path output = Files.createTempFile("shards-", ".bin");
+					outputs.add(output);
+					processes.add(launch(shards, output));
+				}
+				for (int worker = 0; worker < processes.size(); worker++) {
+					collect(processes.get(worker), outputs.get(worker), results);
+				}
+			} finally {
+				for (Process process : processes) {
+					process.destroy();
+				}
+				for (Path output : outputs) {
+					Files.deleteIfExists(output);
+				}
+			}
+		}
+
+		Statistics statistics = new Statistics();
+		for (int shard = 0; shard < results.length; shard++) {
+			if (results[shard] == null) {
+				throw new IOException("Shard " + shard + " failed after " + MAX_ATTEMPTS + " attempts");
+			}
+			statistics.merge(results[shard]);
+		}
+		return statistics;
+	}
+
+	// Worker side: runs each listed shard and streams one binary record per shard to stdout.
+	public static void work(long hands, long seed, RuleSet rules, int seats, String shards) throws IOException {
+		Simulation simulation = new Simulation(hands, 1, seed, rules);
+		simulation.setSeats(seats);
+		ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+		WritableByteChannel out = Channels.newChannel(System.out);
+
+		for (String range : shards.split(",")) {
+			String[] bounds = range.split("-");
+			long first = Long.parseLong(bounds[0]);
+			long last = Long.parseLong(bounds[bounds.length - 1]);
+			for (long shard = first; shard <= last; shard++) {
+				Statistics statistics = simulation.runShard(shard);
+				buffer.clear();
+				buffer.putLong(shard);
+				statistics.write(buffer);
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					out.write(buffer);
+				}
+				System.out.flush();
+			}
+		}
+	}
+
+	// Splits the shards still missing into contiguous ranges, spread over at most one worker each.
+	private ArrayList<String> assign(Statistics[] results) {
+		ArrayList<Integer> missing = new ArrayList<Integer>();
+		for (int shard = 0; shard < results.length; shard++) {
+			if (results[shard] == null) {
+				missing.add(shard);
+			}
+		}
+
+		ArrayList<String> assignments = new ArrayList<String>();
+		int count = Math.min(workers, missing.size());
+		for (int worker = 0; worker < count; worker++) {
+			int from = (int) ((long) missing.size() * worker / count);
+			int to = (int) ((long) missing.size() * (worker + 1) / count);
+			StringBuilder ranges = new StringBuilder();
+			int start = from;
+			for (int i = from + 1; i <= to; i++) {
+				if (i == to || missing.get(i) != missing.get(i - 1) + 1) {
+					if (ranges.length() > 0) {
+						ranges.append(',');
+					}
+					ranges.append(missing.get(start)).append('-').append(missing.get(i - 1));
+					start = i;
+				}
+			}
+			assignments.add(ranges.toString());
+		}
+		return assignments;
+	}
+
+	private Process launch(String shards, Path output) throws IOException {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "Controller",
+				"worker", String.valueOf(hands), String.valueOf(seed), rules.toString(), String.valueOf(seats), shards);
+		builder.redirectOutput(output.toFile());
+		builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+		return builder.start();
+	}
+
+	// Keeps every complete record, even from a worker that later died.
+	private void collect(Process process, Path output, Statistics[] results) throws IOException, InterruptedException {
+		int exit = process.waitFor();
+		if (exit != 0) {
+			System.err.println("Worker exited with status " + exit);
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(output));
+		while (buffer.remaining() >= RECORD_SIZE) {
+			long shard = buffer.getLong();
+			Statistics statistics = Statistics.read(buffer);
+			if (shard >= 0 && shard < results.length) {
+				results[(int) shard] = statistics;
+			}
+		}
+	}
+}
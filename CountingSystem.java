@@ -0,0 +1,22 @@
+
+enum CountingSystem {
+
+	HI_LO(new int[] {-1, 1, 1, 1, 1, 1, 0, 0, 0, -1}, 0),
+	KO(new int[] {-1, 1, 1, 1, 1, 1, 1, 0, 0, -1}, -4);
+
+	private final int[] tags;
+	private final int initialCountPerDeck;
+
+	CountingSystem(int[] tags, int initialCountPerDeck) {
+		this.tags = tags;
+		this.initialCountPerDeck = initialCountPerDeck;
+	}
+
+	public int tag(int value) {
+		return tags[value - 1];
+	}
+
+	public int initialCount(int decks) {
+		return initialCountPerDeck * (decks - 1);
+	}
+}
@@ -1,51 +1,83 @@
-import java.io.Serializable;
-
-class Dealer implements Serializable {
-
-	private final static int DEALER_HIT = 17;
-
-	private Hand hand;
-
-	@Override
-	public String toString() {
-		return "Dealer's hand: " + hand.toString(true);
-	}
-
-	public void setHand(Hand hand) {
-		this.hand = hand;
-	}
-
-	public void playHand(Deck deck) {
-		boolean stand = false;
-		while (!stand && !hand.getBust()) {
-			System.out.println("Dealer's hand: " + hand.toString(false));
-
-			sleep();
-			if (hand.getHandValue() < DEALER_HIT) {
-				hand.addNextCard(deck);
-				System.out.println("Dealer hits");
-			}
-			else {
-				stand = true;
-				System.out.println("Dealer stands");
-			}
-			System.out.println(Game.LINE_BREAK);
-		}
-
-		sleep();
-		if (hand.getBust()) {
-			System.out.println("Dealer's hand: " + hand.toString(false));
-			System.out.println("Dealer busts.");
-			System.out.println(Game.LINE_BREAK);
-		}
-		sleep();
-	}
-
-	private void sleep() {
-		try {
-			Thread.sleep(500);
-		} catch(InterruptedException ex) {
-			Thread.currentThread().interrupt();
-		}
-	}
-}
+
+class Dealer {
+
+	final static int DEALER_HIT = 17;
+
+	private final RuleSet rules;
+	private Hand hand;
+
+	Dealer() {
+		this(new RuleSet());
+	}
+
+	Dealer(RuleSet rules) {
+		this.rules = rules;
+	}
+
+	@Override
+	public String toString() {
+		return hand.appendTo(new StringBuilder("Dealer's hand: "), true).toString();
+	}
+
+	public void setHand(Hand hand) {
+		this.hand = hand;
+	}
+
+	public RuleSet getRules() {
+		return rules;
+	}
+
+	public void playHand(Deck deck) {
+		while (mustHit()) {
+			hand.addNextCard(deck);
+		}
+	}
+
+	public void playHand(Deck deck, Terminal terminal) {
+		if (terminal == null) {
+			playHand(deck);
+			return;
+		}
+
+		boolean stand = false;
+		while (!stand && !hand.getBust()) {
+			terminal.printHand("Dealer's hand: ", hand, false);
+
+			sleep(terminal);
+			if (mustHit()) {
+				hand.addNextCard(deck);
+				terminal.println("Dealer hits");
+			}
+			else {
+				stand = true;
+				terminal.println("Dealer stands");
+			}
+			terminal.println(Game.LINE_BREAK);
+		}
+
+		sleep(terminal);
+		if (hand.getBust()) {
+			terminal.printHand("Dealer's hand: ", hand, false);
+			terminal.println("Dealer busts.");
+			terminal.println(Game.LINE_BREAK);
+		}
+		sleep(terminal);
+	}
+
+	private boolean mustHit() {
+		int value = hand.getHandValue();
+		return value < DEALER_HIT || (value == DEALER_HIT && hand.isSoft() && rules.hitSoft17());
+	}
+
+	// Paces the reveal for a person at the console; buffered, quiet and server output skip it.
+	private void sleep(Terminal terminal) {
+		if (!terminal.isPaced()) {
+			return;
+		}
+		try {
+			Thread.sleep(500);
+		} catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
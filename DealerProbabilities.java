@@ -0,0 +1,129 @@
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+class DealerProbabilities {
+
+	public final static int OUTCOMES = 6;
+	public final static int BUST = 5;
+	public final static int RANKS = 10;
+
+	private final static int BLACKJACK = 21;
+	private final static int ALT_ACE_VALUE = 10;
+	private final static long[] UNIT = new long[RANKS];
+	private final static double[][] FINAL = new double[OUTCOMES][OUTCOMES];
+
+	static {
+		for (int rank = 0; rank < RANKS; rank++) {
+			UNIT[rank] = 1L << (rank * 6);
+		}
+		for (int outcome = 0; outcome < OUTCOMES; outcome++) {
+			FINAL[outcome][outcome] = 1;
+		}
+	}
+
+	private final ConcurrentHashMap<Long, double[]>[] caches;
+	private final boolean hitSoft17;
+
+	DealerProbabilities() {
+		this(new RuleSet());
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	DealerProbabilities(RuleSet rules) {
+		hitSoft17 = rules.hitSoft17();
+		caches = new ConcurrentHashMap[RANKS];
+		for (int rank = 0; rank < RANKS; rank++) {
+			caches[rank] = new ConcurrentHashMap<Long, double[]>();
+		}
+	}
+
+	public static int[] shoe(int decks) {
+		int[] counts = new int[RANKS];
+		for (int rank = 0; rank < RANKS; rank++) {
+			counts[rank] = (rank == RANKS - 1) ? 16 * decks : 4 * decks;
+		}
+		return counts;
+	}
+
+	public static long key(int[] counts) {
+		long key = 0;
+		for (int rank = 0; rank < RANKS; rank++) {
+			key += counts[rank] * UNIT[rank];
+		}
+		return key;
+	}
+
+	public static long unit(int value) {
+		return UNIT[value - 1];
+	}
+
+	public double[] distribution(int upCard, Deck deck) {
+		double[] result = caches[upCard - 1].get(deck.getCompositionKey());
+		return (result != null) ? result : distribution(upCard, deck.getCounts());
+	}
+
+	public double[] distribution(int upCard, int[] counts) {
+		long key = key(counts);
+		double[] result = caches[upCard - 1].get(key);
+		if (result == null) {
+			result = calculate(upCard, counts.clone(), key);
+			caches[upCard - 1].put(key, result);
+		}
+		return result;
+	}
+
+	private double[] calculate(int upCard, int[] counts, long key) {
+		HashMap<Long, double[]> memo = new HashMap<Long, double[]>();
+		double[] result = new double[OUTCOMES];
+		int excluded = (upCard == 1) ? RANKS : (upCard == RANKS) ? 1 : 0;
+		int cardsLeft = 0;
+		for (int count : counts) {
+			cardsLeft += count;
+		}
+		int holeCards = cardsLeft - ((excluded == 0) ? 0 : counts[excluded - 1]);
+
+		for (int card = 1; card <= RANKS; card++) {
+			if (card == excluded || counts[card - 1] == 0) {
+				continue;
+			}
+			double probability = (double) counts[card - 1] / holeCards;
+			counts[card - 1]--;
+			double[] next = draw(upCard + card, upCard == 1 || card == 1, counts, key - UNIT[card - 1], cardsLeft - 1, memo);
+			counts[card - 1]++;
+			for (int outcome = 0; outcome < OUTCOMES; outcome++) {
+				result[outcome] += probability * next[outcome];
+			}
+		}
+		return result;
+	}
+
+	private double[] draw(int hardValue, boolean ace, int[] counts, long key, int cardsLeft, HashMap<Long, double[]> memo) {
+		int value = (ace && hardValue + ALT_ACE_VALUE <= BLACKJACK) ? hardValue + ALT_ACE_VALUE : hardValue;
+		if (value > BLACKJACK) {
+			return FINAL[BUST];
+		}
+		if (value > Dealer.DEALER_HIT || (value == Dealer.DEALER_HIT && !(hitSoft17 && value != hardValue))) {
+			return FINAL[value - Dealer.DEALER_HIT];
+		}
+
+		double[] result = memo.get(key);
+		if (result != null) {
+			return result;
+		}
+		result = new double[OUTCOMES];
+		for (int card = 1; card <= RANKS; card++) {
+			if (counts[card - 1] == 0) {
+				continue;
+			}
+			double probability = (double) counts[card - 1] / cardsLeft;
+			counts[card - 1]--;
+			double[] next = draw(hardValue + card, ace || card == 1, counts, key - UNIT[card - 1], cardsLeft - 1, memo);
+			counts[card - 1]++;
+			for (int outcome = 0; outcome < OUTCOMES; outcome++) {
+				result[outcome] += probability * next[outcome];
+			}
+		}
+		memo.put(key, result);
+		return result;
+	}
+}
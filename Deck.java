@@ -1,58 +1,216 @@
-import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Random;
-
-class Deck implements Serializable {
-
-	private final Random rand;
-	private final ArrayList<Card> cards;
-
-	Deck() {
-		rand = new Random(System.currentTimeMillis());
-		cards = new ArrayList<Card>(52);
-		addAllCards();
-		shuffle();
-	}
-	
-	@Override
-	public String toString() {
-		return cards.toString();
-	}
-
-	private void addAllCards() {
-		int nameIndex = 0;
-		int suiteIndex = 0;
-
-		for (int i = 0; i < 52; i ++) {
-			nameIndex = (nameIndex == 13) ? 0 : nameIndex;
-			suiteIndex = (suiteIndex == 4) ? 0 : suiteIndex;
-
-			cards.add(new Card(Card.CardName.values()[nameIndex], Card.CardSuite.values()[suiteIndex]));
-
-			nameIndex++;
-			suiteIndex = (i % 13 == 12) ? suiteIndex + 1 : suiteIndex;
-		}
-	}
-
-	private void shuffle() {
-		Collections.shuffle(cards);
-		Collections.shuffle(cards, rand);
-	}
-
-	public void addCard(Card card) {
-		cards.add(card);
-	}
-
-	public boolean removeCard(Card card) {
-		return cards.remove(card);
-	}
-
-	public Card removeNextCard() {
-		if (cards.isEmpty()) {
-			System.out.println("New deck coming in.");
-			addAllCards();
-		}
-		return cards.remove(0);
-	}
-}
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+class Deck {
+
+	private final static int DECK_SIZE = 52;
+	private final static double FULL_PENETRATION = 1;
+	private final static AtomicLong SHOES = new AtomicLong();
+
+	private final long seed;
+	private final Rng rand;
+	private byte[] cards;
+	private final int cutCard;
+	private final int[] shoe;
+	private final int[] remaining = new int[DealerProbabilities.RANKS];
+	private CountingSystem countingSystem = CountingSystem.HI_LO;
+	private ShoePipeline pipeline = null;
+	private long compositionKey;
+	private int runningCount;
+	private int next = 0;
+	private int shuffles = 0;
+
+	Deck(int decks, double penetration) {
+		this(decks, penetration, Rng.seed(System.currentTimeMillis(), SHOES.getAndIncrement()));
+	}
+
+	Deck(long seed) {
+		this(1, FULL_PENETRATION, seed);
+	}
+
+	Deck(int decks, double penetration, long seed) {
+		this(seed, seed, decks, (int) (DECK_SIZE * decks * penetration));
+		addAllCards();
+		shuffleCards();
+	}
+
+	private Deck(long seed, long state, int decks, int cutCard) {
+		this.seed = seed;
+		rand = new Rng(state);
+		cards = new byte[DECK_SIZE * decks];
+		this.cutCard = cutCard;
+		shoe = DealerProbabilities.shoe(decks);
+	}
+
+	// Rejects anything write() could not have produced: the shoe must be whole decks of every card.
+	public static Deck read(ByteBuffer buffer) throws IOException {
+		int decks = buffer.get();
+		int cutCard = buffer.getInt();
+		long seed = buffer.getLong();
+		long state = buffer.getLong();
+		int counting = buffer.get();
+		int shuffles = buffer.getInt();
+		if (decks < 1 || cutCard < 0 || cutCard > DECK_SIZE * decks
+				|| counting < 0 || counting >= CountingSystem.values().length || shuffles < 0) {
+			throw new IOException("Corrupt save");
+		}
+		Deck deck = new Deck(seed, state, decks, cutCard);
+		deck.countingSystem = CountingSystem.values()[counting];
+		deck.shuffles = shuffles;
+		buffer.get(deck.cards);
+		int[] copies = new int[DECK_SIZE];
+		for (byte code : deck.cards) {
+			if (code < 0 || code >= DECK_SIZE || ++copies[code] > decks) {
+				throw new IOException("Corrupt save");
+			}
+		}
+		deck.resetCounts();
+		int next = buffer.getInt();
+		if (next < 0 || next > deck.cards.length) {
+			throw new IOException("Corrupt save");
+		}
+		while (deck.next < next) {
+			deck.count(Card.valueOf(deck.cards[deck.next++]));
+		}
+		return deck;
+	}
+
+	public int byteSize() {
+		return 30 + cards.length;
+	}
+
+	public void write(ByteBuffer buffer) {
+		buffer.put((byte) (cards.length / DECK_SIZE));
+		buffer.putInt(cutCard);
+		buffer.putLong(seed);
+		buffer.putLong(rand.getState());
+		buffer.put((byte) countingSystem.ordinal());
+		buffer.putInt(shuffles);
+		buffer.put(cards);
+		buffer.putInt(next);
+	}
+	
+	@Override
+	public String toString() {
+		Card[] remaining = new Card[cards.length - next];
+		for (int i = next; i < cards.length; i++) {
+			remaining[i - next] = Card.valueOf(cards[i]);
+		}
+		return Arrays.toString(remaining);
+	}
+
+	private void addAllCards() {
+		for (int i = 0; i < cards.length; i++) {
+			cards[i] = (byte) (i % DECK_SIZE);
+		}
+	}
+
+	public void shuffle() {
+		if (pipeline != null) {
+			cards = pipeline.exchange(cards);
+			next = 0;
+			resetCounts();
+		}
+		else {
+			shuffleCards();
+		}
+		shuffles++;
+	}
+
+	// Hands reshuffling to a background thread; the shoes it produces are the ones shuffle() would have.
+	public ShoePipeline startPipeline(int capacity) {
+		pipeline = new ShoePipeline(cards.clone(), new Rng(rand.getState()), capacity);
+		pipeline.start();
+		return pipeline;
+	}
+
+	private void shuffleCards() {
+		for (int i = cards.length - 1; i > 0; i--) {
+			int j = rand.nextInt(i + 1);
+			byte temp = cards[i];
+			cards[i] = cards[j];
+			cards[j] = temp;
+		}
+		next = 0;
+		resetCounts();
+	}
+
+	private void resetCounts() {
+		System.arraycopy(shoe, 0, remaining, 0, remaining.length);
+		compositionKey = DealerProbabilities.key(remaining);
+		runningCount = countingSystem.initialCount(cards.length / DECK_SIZE);
+	}
+
+	private void count(Card card) {
+		remaining[card.getValue() - 1]--;
+		compositionKey -= DealerProbabilities.unit(card.getValue());
+		runningCount += countingSystem.tag(card.getValue());
+	}
+
+	public boolean needsShuffle() {
+		return next >= cutCard;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public int getShuffles() {
+		return shuffles;
+	}
+
+	public void setCountingSystem(CountingSystem countingSystem) {
+		this.countingSystem = countingSystem;
+		runningCount = countingSystem.initialCount(cards.length / DECK_SIZE);
+		for (int value = 1; value <= remaining.length; value++) {
+			runningCount += countingSystem.tag(value) * (shoe[value - 1] - remaining[value - 1]);
+		}
+	}
+
+	public int getRemaining(int value) {
+		return remaining[value - 1];
+	}
+
+	public int[] getCounts() {
+		return remaining.clone();
+	}
+
+	public long getCompositionKey() {
+		return compositionKey;
+	}
+
+	public int getCardsRemaining() {
+		return cards.length - next;
+	}
+
+	public int getRunningCount() {
+		return runningCount;
+	}
+
+	public double getTrueCount() {
+		return runningCount / ((double) (cards.length - next) / DECK_SIZE);
+	}
+
+	public boolean removeCard(Card card) {
+		for (int i = next; i < cards.length; i++) {
+			if (cards[i] == card.getCode()) {
+				cards[i] = cards[next];
+				cards[next++] = (byte) card.getCode();
+				count(card);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public Card removeNextCard() {
+		if (next == cards.length) {
+			shuffle();
+		}
+		Card card = Card.valueOf(cards[next++]);
+		count(card);
+		return card;
+	}
+}
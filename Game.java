@@ -1,487 +1,471 @@
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serializable;
-import java.util.InputMismatchException;
-import java.util.Scanner;
-import java.util.concurrent.TimeUnit;
-
-class Game implements Serializable {
-
-	private final transient static long serialVersionUID = 9116192370304142140L;
-	public  final transient static String LINE_BREAK = "------------------------------------------------";
-	private final transient static int LOSE = -1;
-	private final transient static int PUSH = 0;
-	private final transient static int WIN = 1;
-	private final transient static int BLACKJACK = 2;
-	private final transient static Scanner scanner = new Scanner(System.in, "UTF-8");
-
-	private final Deck deck;
-	private final Player player;
-	private final Dealer dealer;
-	private transient Hand playerHand = null;
-	private transient Hand dealerHand = null;
-
-	private transient long startTime;
-	private transient boolean prompted = false;
-
-	private Game() {
-		deck = new Deck();
-		player = new Player();
-		dealer = new Dealer();
-	}
-
-	public static void start() {
-		Game game;
-		System.out.println(LINE_BREAK);
-		System.out.println("Do you want to load a previously saved game?");
-		if (promptYesNo()) {
-			System.out.print("Enter the name: ");
-			String fileName = scanner.next();
-			game = loadGame(fileName);
-			System.out.println(LINE_BREAK);
-		}
-		else {
-			System.out.println("Starting new game.");
-			System.out.println(LINE_BREAK);
-			game = new Game();
-		}
-
-		game.startTime = System.currentTimeMillis();
-		boolean gameOver = game.startGame();
-
-		System.out.println(LINE_BREAK);
-		System.out.println("Do you want to save your game?");
-		if (promptYesNo()) {
-			System.out.print("Enter a name: ");
-			saveGame(game, scanner.next());
-		}
-		if (!gameOver) {
-			start();
-		}
-	}
-
-	private static Game loadGame(String fileName) {
-		Game game = null;
-		fileName += ".game";
-		try {
-			FileInputStream fileInputStream = new FileInputStream(fileName);
-			ObjectInputStream objectInputStream = new ObjectInputStream(fileInputStream);
-			game = (Game) objectInputStream.readObject();
-		} catch (FileNotFoundException e) {
-			System.out.println("Game not found. Starting new game.");
-		}catch (IOException e) {
-			System.out.println("Error loading game. Starting new game.");
-		} catch (ClassNotFoundException e) {
-			System.out.println("Error loading game. Starting new game.");
-		}
-
-		if (game == null) {
-			game = new Game();
-		}
-		else {
-			System.out.println("Game successfully loaded.");
-		}
-		return game;
-	}
-
-	private static void saveGame(Game game, String fileName) {
-		fileName += ".game";
-		try {
-			FileOutputStream fileOutputStream = new FileOutputStream(fileName);
-			ObjectOutputStream objectOutputStream = new ObjectOutputStream(fileOutputStream);
-			objectOutputStream.writeObject(game);
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-	}
-
-	private boolean startGame() {
-		if (player.canPlay()) {
-			deal();
-			greeting();
-			if (!checkBlackJacks()) {
-				play();
-			}
-			player.settle();
-			if (promptNewGame()) {
-				long playTime = System.currentTimeMillis() - startTime;
-				if (playTime >= TimeUnit.MINUTES.toMillis(30) && !prompted) {
-					prompted = true;
-					System.out.println("You've been playing for " + 30 + " minutes.");
-					System.out.println("Do you want to quit?");
-					return promptYesNo();
-				}
-				else {
-					startGame();
-				}
-			}
-			else {
-				System.out.println(LINE_BREAK);
-				System.out.println("You walk away with " + (int) player.getWallet() + " credit(s).");
-				System.out.println("Your high wallet value was " + player.getHighMark() + " credit(s).");
-			}
-		}
-		else {
-			System.out.println("You gambled all your money away.");
-			System.out.println("Your high wallet value was " + player.getHighMark() + " credit(s).");
-		}
-		return true;
-	}
-
-	private void deal() {
-		playerHand = new Hand(deck);
-		player.newGame(deck);
-		player.addHand(playerHand);
-		dealerHand = new Hand(deck);
-		dealer.setHand(dealerHand);
-	}
-
-	private void greeting() {
-		System.out.println("You have " + player.getWallet() + " credit(s).");
-
-		placeBet((playerHand));
-
-		System.out.println("You now have " + player.getWallet() + " credit(s) remaining.");
-		System.out.println(LINE_BREAK);
-		System.out.println(dealer.toString());
-		System.out.println(player.toString());
-	}
-
-	private void placeBet(Hand hand) {
-		System.out.println("How much do you want to bet?");
-		boolean validBet = false;
-
-		while (!validBet) {
-			try {
-				double input = scanner.nextDouble();
-				hand.setBet(input);
-				validBet = player.decreaseWallet(input);
-				if (input < 0) {
-					validBet = false;
-					System.out.println("You can't bet negative credits.");
-				}
-				else if (input == 0) {
-					validBet = false;
-					System.out.println("You have to bet something.");
-				}
-				else if (!validBet) {
-					System.out.println("You don't have that many credits.");
-				}
-			} catch (InputMismatchException e) {
-				System.out.println("Enter a valid number.");
-				scanner.next();
-			}
-		}
-	}
-
-	private boolean checkBlackJacks(){
-		boolean playerBlackJack = playerHand.checkBlackJack();
-		boolean dealerBlackJack = dealerHand.checkBlackJack();
-
-		if (playerBlackJack && dealerBlackJack) {
-			playerHand.setOutcome(PUSH);
-			System.out.println("Blackjacks, push");
-			return true;
-		}
-		else if (playerBlackJack) {
-			playerHand.setOutcome(BLACKJACK);
-			System.out.println("Blackjack, you win");
-			return true;
-		}
-		else if (dealerBlackJack) {
-			playerHand.setOutcome(LOSE);
-			System.out.println("Dealer blackjack, you lose");
-			return true;
-		}
-		return false;
-	}
-
-	private void play() {
-		Hand otherHand = playHand(playerHand);
-		dealer.playHand(deck);
-
-		if (otherHand != null) {
-			player.addHand(otherHand);
-			player.decreaseWallet(otherHand.getBet());
-			printMessage(playerHand, otherHand, dealerHand);
-		}
-		else {
-			printMessage(playerHand, dealerHand);
-		}
-	}
-
-	private Hand playHand(Hand hand) {
-		Hand otherHand = null;
-
-		if (hand.pairOfAces()) {
-			otherHand = promptSplitAces(hand);
-			System.out.println(LINE_BREAK);
-		}
-		else {
-			if (hand.canSplit()) {
-				otherHand = promptSplit(hand);
-			}
-			System.out.println(LINE_BREAK);
-			if (otherHand != null) {
-				System.out.println("Playing left hand:");
-			}
-			promptHit(hand);
-			if (otherHand != null) {
-				System.out.println("Playing right hand");
-				promptHit(otherHand);
-			}
-		}
-		return otherHand;
-	}
-
-	private Hand promptSplitAces(Hand hand) {
-		Hand splitHand = null;
-		System.out.println("Your hand: " + hand.toString(false));
-		System.out.println("You have a pair of Aces. Do you want to split? (y/n)");
-		if (promptYesNo()) {
-			splitHand = new Hand(deck, hand.removeCard());
-			hand.addNextCard(deck);
-
-			System.out.println("Your left hand: " + hand.toString(false));
-			System.out.println("Your right hand: " + splitHand.toString(false));
-		}
-		return splitHand;
-	}
-
-	private Hand promptSplit(Hand hand) {
-		Hand splitHand = null;
-		System.out.println("You have a pair. Do you want to split? (y/n)");
-
-		if (promptYesNo()) {
-			splitHand = new Hand(deck, hand.removeCard());
-			splitHand.setBet(hand.getBet());
-			hand.addNextCard(deck);
-
-			System.out.println("Your left hand: " + hand.toString(false));
-			System.out.println("Your right hand: " + splitHand.toString(false));
-		}
-		return splitHand;
-	}
-
-	private static boolean promptYesNo() {
-		boolean validInput = false;
-		boolean booleanInput = false;
-		String input;
-
-		while (!validInput) {
-			input = scanner.next();
-			if (input.equals("y")) {
-				validInput = true;
-				booleanInput = true;
-			}
-			else if (input.equals("n")) {
-				validInput = true;
-				booleanInput = false;
-			}
-			else {
-				System.out.println("Enter either 'y' or 'n'.");
-			}
-		}
-		return booleanInput;
-	}
-
-	private void promptHit(Hand hand) {
-		boolean stand = false;
-		boolean firstMove = true;
-
-		while (!stand && !hand.getBust()) {
-			System.out.println("Your hand: " + hand.toString(false));
-			if (firstMove) {
-				System.out.println("Do you want to hit, stand, or double down? (h/s/d)");
-				char playerMove = promptFirstMove();
-				if (playerMove == 'h') {
-					hand.addNextCard(deck);
-				}
-				else if (playerMove == 's') {
-					stand = true;
-				}
-				else if (playerMove == 'd') {
-					stand = true;
-					hand.addNextCard(deck);
-					player.decreaseWallet(hand.getBet());
-					hand.doubleDown();
-					System.out.println("You now have " + player.getWallet() + " credit(s) remaining.");
-					System.out.println("Your hand: " + hand.toString(false));
-				}
-				firstMove = false;
-			}
-			else {
-				System.out.println("Do you want to hit or stand? (h/s)");
-				char playerMove = promptMove();
-				if (playerMove == 'h') {
-					hand.addNextCard(deck);
-				}
-				else if (playerMove == 's') {
-					stand = true;
-				}
-			}
-
-			System.out.println(LINE_BREAK);
-		}
-		if (hand.getBust()) {
-			System.out.println("Your hand: " + hand.toString(false));
-			System.out.println("Hand busts.");
-			System.out.println(LINE_BREAK);
-		}
-	}
-
-	private char promptFirstMove() {
-		boolean validInput = false;
-		String input = "";
-		char charInput;
-
-		while (!validInput) {
-			input = scanner.next();
-			if (input.equals("h") || input.equals("s")) {
-				validInput = true;
-			}
-			else if (input.equals("d")) {
-				if (player.canDoubleDown(playerHand.getBet())) {
-					validInput = true;
-				}
-				else {
-					System.out.println("You don't have enough credit to double down.");
-				}
-			}
-			else {
-				System.out.println("Enter either 'h' or 's' or 'd'.");
-			}
-		}
-		charInput = input.charAt(0);
-		return charInput;
-	}
-
-	private char promptMove() {
-		boolean validInput = false;
-		String input = "";
-		char charInput;
-
-		while (!validInput) {
-			input = scanner.next();
-			if (input.equals("h") || input.equals("s")) {
-				validInput = true;
-			}
-			else {
-				System.out.println("Enter either 'h' or 's'.");
-			}
-		}
-		charInput = input.charAt(0);
-		return charInput;
-	}
-
-	private boolean promptNewGame() {
-		System.out.println("You have " + player.getWallet() + " credit(s).");
-		System.out.println(LINE_BREAK);
-		System.out.println("Do you want to play another hand? (y/n)");
-		if (promptYesNo()) {
-			System.out.println(LINE_BREAK);
-			return true;
-		}
-		return false;
-	}
-
-	private void printMessage(Hand playerHand, Hand dealerHand) {
-		System.out.println("RESULTS");
-		System.out.println("Your hand: " + playerHand.toString(false));
-		System.out.println("Dealer's hand: " + dealerHand.toString(false));
-
-		String message = "";
-		if (playerHand.getBust()) {
-			message = "You bust. You lose " + playerHand.getBet() + " credit(s).";
-			playerHand.setOutcome(LOSE);
-		}
-		else if (dealerHand.getBust()) {
-			message = "Dealer busts. You win " + playerHand.getBet() + " credit(s).";
-			playerHand.setOutcome(WIN);
-		}
-		else {
-			int compare = playerHand.compare(dealerHand);
-			if (compare == LOSE) {
-				message = "You lose. You lose " + playerHand.getBet() + " credit(s).";
-			}
-			else if (compare == WIN) {
-				message = "You win. You win " + playerHand.getBet() + " credit(s).";
-			}
-			else if (compare == PUSH) {
-				message = "It's a push. " + playerHand.getBet() + " credit(s) returned.";
-			}
-			playerHand.setOutcome(compare);
-		}
-		System.out.println(message);
-	}
-
-	private void printMessage(Hand playerHand, Hand splitHand, Hand dealerHand) {
-		System.out.println("RESULTS");
-		System.out.println("Your left hand: " + playerHand.toString(false));
-		System.out.println("Your right hand: " + splitHand.toString(false));
-		System.out.println("Dealer's hand: " + dealerHand.toString(false));
-
-		String message = "";
-		if (playerHand.getBust()) {
-			message = "Your left hand busts.";
-			playerHand.setOutcome(LOSE);
-		}
-		else if (dealerHand.getBust()) {
-			playerHand.setOutcome(WIN);
-			message = "Dealer busts. Your left hand wins.";
-		}
-		else {
-			int compare = playerHand.compare(dealerHand);
-			if (compare == LOSE) {
-				message = "Your left hand loses.";
-			}
-			else if (compare == WIN) {
-				message = "Your left hand wins.";
-			}
-			else if (compare == PUSH) {
-				message = "Your left hand pushes.";
-			}
-			playerHand.setOutcome(compare);
-		}
-		System.out.println(message);
-
-		if (splitHand.getBust()) {
-			splitHand.setOutcome(LOSE);
-			message = "Your right hand busts.";
-		}
-		else if (dealerHand.getBust()) {
-			splitHand.setOutcome(WIN);
-			message = "Dealer busts. Your right hand wins.";
-		}
-		else {
-			int compare = splitHand.compare(dealerHand);
-			if (compare == LOSE) {
-				message = "Your right hand loses.";
-			}
-			else if (compare == WIN) {
-				message = "Your right hand wins.";
-			}
-			else if (compare == PUSH) {
-				message = "Your right hand pushes.";
-			}
-			splitHand.setOutcome(compare);
-		}
-		System.out.println(message);
-
-		double netWinnings = (playerHand.getBet() * playerHand.getOutcome()) + (splitHand.getBet() * splitHand.getOutcome());
-		if (netWinnings < 0) {
-			message = "You lose " + -netWinnings + " credit(s).";
-		}
-		else if (netWinnings == 0) {
-			message = "You came out even.";
-		}
-		else if (netWinnings > 0) {
-			message = "You win " + netWinnings + " credit(s).";
-		}
-		System.out.println(message);
-	}
-}
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+class Game {
+
+	// States ending in a question wait for one line of input before step() moves on.
+	enum State {OPEN, LOAD, LOAD_NAME, BETTING, BET, DEALT, INSURANCE, PLAYER_TURN, DECISION, DEALER_TURN, SETTLE,
+			PROMPT, ANOTHER, QUIT, OVER, SAVE, SAVE_NAME, CLOSED}
+
+	public  final static String LINE_BREAK = "------------------------------------------------";
+
+	private final static double PENETRATION = 0.75;
+
+	private final static String[][] HAND_NAMES = handNames("Your ", "");
+	private final static String[][] HAND_LABELS = handNames("Your ", ": ");
+	private final static String[][] PLAYING = handNames("Playing ", ":");
+
+	private final Terminal terminal;
+	private final boolean autoPlay;
+	private final HandLog log;
+	private final RuleSet rules;
+	private final Path saves;
+	private Deck deck = null;
+	private Player player = null;
+	private Dealer dealer = null;
+	private Strategy strategy = null;
+	private ConsoleStrategy console = null;
+	private Round round = null;
+	private State state = State.OPEN;
+	private boolean gameOver = true;
+
+	private long startTime;
+	private boolean prompted = false;
+
+	// With a saves directory, save names are restricted to plain file names inside it.
+	Game(Terminal terminal, boolean autoPlay, HandLog log, RuleSet rules, Path saves) {
+		this.terminal = terminal;
+		this.autoPlay = autoPlay;
+		this.log = log;
+		this.rules = rules;
+		this.saves = saves;
+	}
+
+	public static void start(Terminal terminal, boolean autoPlay, HandLog log, RuleSet rules) {
+		new Game(terminal, autoPlay, log, rules, null).run();
+	}
+
+	// Steps until the game closes or needs input the terminal does not have yet; false once closed.
+	public boolean run() {
+		while (state != State.CLOSED && (!waitsForInput() || terminal.hasNext())) {
+			step();
+		}
+		return state != State.CLOSED;
+	}
+
+	public State step() {
+		switch (state) {
+			case OPEN:
+				terminal.println(LINE_BREAK);
+				terminal.println("Do you want to load a previously saved game?");
+				state = State.LOAD;
+				break;
+			case LOAD:
+				state = load();
+				break;
+			case LOAD_NAME:
+				state = loadName();
+				break;
+			case BETTING:
+				state = bet();
+				break;
+			case BET:
+				state = placeBet();
+				break;
+			case DEALT:
+				state = dealt();
+				break;
+			case INSURANCE:
+				state = insurance();
+				break;
+			case PLAYER_TURN:
+				state = playerTurn();
+				break;
+			case DECISION:
+				state = console.answer(round) ? State.PLAYER_TURN : State.DECISION;
+				break;
+			case DEALER_TURN:
+				round.playDealer();
+				round.resolve();
+				printMessage(player, round.getDealerHand());
+				state = State.SETTLE;
+				break;
+			case SETTLE:
+				round.settle();
+				terminal.endRound();
+				state = State.PROMPT;
+				break;
+			case PROMPT:
+				terminal.printCredits("You have ", player.getWallet(), " credit(s).");
+				terminal.println(LINE_BREAK);
+				terminal.println("Do you want to play another hand? (y/n)");
+				state = State.ANOTHER;
+				break;
+			case ANOTHER:
+				state = another();
+				break;
+			case QUIT:
+				state = quit();
+				break;
+			case OVER:
+				terminal.println(LINE_BREAK);
+				terminal.println("Do you want to save your game?");
+				state = State.SAVE;
+				break;
+			case SAVE:
+				state = save();
+				break;
+			case SAVE_NAME:
+				state = saveName();
+				break;
+			default:
+				break;
+		}
+		return state;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	private boolean waitsForInput() {
+		switch (state) {
+			case LOAD:
+			case LOAD_NAME:
+			case BET:
+			case INSURANCE:
+			case DECISION:
+			case ANOTHER:
+			case QUIT:
+			case SAVE:
+			case SAVE_NAME:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private State load() {
+		Boolean answer = terminal.readYesNo();
+		if (answer == null) {
+			return State.LOAD;
+		}
+		if (answer) {
+			terminal.print("Enter the name: ");
+			return State.LOAD_NAME;
+		}
+		terminal.println("Starting new game.");
+		terminal.println(LINE_BREAK);
+		return begin(new Deck(rules.getDecks(), PENETRATION), new Player());
+	}
+
+	private State loadName() {
+		String name = readName();
+		if (name == null) {
+			return State.LOAD_NAME;
+		}
+		SaveFile saveFile = saveFile(name);
+		try {
+			saveFile.read();
+			terminal.println("Game successfully loaded.");
+			terminal.println(LINE_BREAK);
+			return begin(saveFile.getDeck(), saveFile.getPlayer());
+		} catch (NoSuchFileException e) {
+			terminal.println("Game not found. Starting new game.");
+		} catch (IOException e) {
+			terminal.println("Error loading game. Starting new game.");
+		}
+		terminal.println(LINE_BREAK);
+		return begin(new Deck(rules.getDecks(), PENETRATION), new Player());
+	}
+
+	private State begin(Deck deck, Player player) {
+		this.deck = deck;
+		this.player = player;
+		dealer = new Dealer(rules);
+		strategy = autoPlay ? new BasicStrategy(rules) : null;
+		console = autoPlay ? null : new ConsoleStrategy(terminal, player);
+		round = null;
+		gameOver = true;
+		prompted = false;
+		startTime = System.currentTimeMillis();
+		terminal.println("Rules: ", rules, "");
+		terminal.println("Shoe seed: ", deck.getSeed());
+		return State.BETTING;
+	}
+
+	private State save() {
+		Boolean answer = terminal.readYesNo();
+		if (answer == null) {
+			return State.SAVE;
+		}
+		if (answer) {
+			terminal.print("Enter a name: ");
+			return State.SAVE_NAME;
+		}
+		return gameOver ? State.CLOSED : State.OPEN;
+	}
+
+	private State saveName() {
+		String name = readName();
+		if (name == null) {
+			return State.SAVE_NAME;
+		}
+		try {
+			saveFile(name).write(player, deck);
+		} catch (IOException e) {
+			terminal.println("Error saving game.");
+		}
+		return gameOver ? State.CLOSED : State.OPEN;
+	}
+
+	private String readName() {
+		String name = terminal.next();
+		if (saves != null && !SaveFile.isValidName(name)) {
+			terminal.print("Use only letters, digits, '_' and '-': ");
+			return null;
+		}
+		return name;
+	}
+
+	private SaveFile saveFile(String name) {
+		return (saves == null) ? new SaveFile(name) : new SaveFile(saves, name);
+	}
+
+	private State bet() {
+		if (!player.canPlay()) {
+			terminal.report("You gambled all your money away.");
+			terminal.reportCredits("Your high wallet value was ", player.getHighMark(), " credit(s).");
+			return State.OVER;
+		}
+
+		int shuffles = deck.getShuffles();
+		if (round == null) {
+			round = new Round(deck, player, dealer, terminal);
+			round.setLog(log);
+		}
+		round.deal();
+		if (deck.getShuffles() != shuffles) {
+			terminal.println("New deck coming in.");
+		}
+		terminal.printCredits("You have ", player.getWallet(), " credit(s).");
+		terminal.println("How much do you want to bet?");
+		return State.BET;
+	}
+
+	private State placeBet() {
+		try {
+			long input = Money.parse(terminal.next());
+			if (input < 0) {
+				terminal.println("You can't bet negative credits.");
+			}
+			else if (input == 0) {
+				terminal.println("You have to bet something.");
+			}
+			else if (!round.placeBet(0, input)) {
+				terminal.println("You don't have that many credits.");
+			}
+			else {
+				terminal.printCredits("You now have ", player.getWallet(), " credit(s) remaining.");
+				return State.DEALT;
+			}
+		} catch (NumberFormatException e) {
+			terminal.println("Enter a valid number.");
+		}
+		return State.BET;
+	}
+
+	private State dealt() {
+		terminal.println(LINE_BREAK);
+		terminal.printHand("Dealer's hand: ", round.getDealerHand(), true);
+		terminal.printHands(player);
+		if (!autoPlay && round.canInsure(0)) {
+			console.askInsurance(player.getHand(0));
+			return State.INSURANCE;
+		}
+		if (autoPlay) {
+			round.offerInsurance(strategy);
+		}
+		return checkBlackJacks();
+	}
+
+	private State insurance() {
+		Boolean answer = terminal.readYesNo();
+		if (answer == null) {
+			return State.INSURANCE;
+		}
+		if (answer) {
+			round.insure(0);
+		}
+		return checkBlackJacks();
+	}
+
+	private State checkBlackJacks() {
+		boolean finished = round.checkBlackJacks();
+		long insurance = player.getHand(0).getInsurance();
+		if (insurance > 0 && round.getDealerHand().checkBlackJack()) {
+			terminal.printCredits("Insurance pays ", insurance * 2, " credit(s).");
+		}
+		else if (insurance > 0) {
+			terminal.printCredits("Dealer has no blackjack. Insurance of ", insurance, " credit(s) lost.");
+		}
+		if (finished) {
+			printBlackJacks();
+			return State.SETTLE;
+		}
+		return State.PLAYER_TURN;
+	}
+
+	private State playerTurn() {
+		if (autoPlay) {
+			round.playPlayers(strategy);
+		}
+		else if (round.nextDecision() != null) {
+			console.ask(round);
+			return State.DECISION;
+		}
+		terminal.println(LINE_BREAK);
+		return State.DEALER_TURN;
+	}
+
+	private State another() {
+		Boolean answer = terminal.readYesNo();
+		if (answer == null) {
+			return State.ANOTHER;
+		}
+		terminal.println(LINE_BREAK);
+		if (!answer) {
+			terminal.reportCredits("You walk away with ", player.getWallet(), " credit(s).");
+			terminal.reportCredits("Your high wallet value was ", player.getHighMark(), " credit(s).");
+			return State.OVER;
+		}
+
+		long playTime = System.currentTimeMillis() - startTime;
+		if (playTime >= TimeUnit.MINUTES.toMillis(30) && !prompted) {
+			prompted = true;
+			terminal.println("You've been playing for 30 minutes.");
+			terminal.println("Do you want to quit?");
+			return State.QUIT;
+		}
+		return State.BETTING;
+	}
+
+	private State quit() {
+		Boolean answer = terminal.readYesNo();
+		if (answer == null) {
+			return State.QUIT;
+		}
+		gameOver = answer;
+		return State.OVER;
+	}
+
+	private void printBlackJacks() {
+		int outcome = player.getHand(0).getOutcome();
+		if (outcome == Round.PUSH) {
+			terminal.println("Blackjacks, push");
+		}
+		else if (outcome == Round.BLACKJACK) {
+			terminal.println("Blackjack, you win");
+		}
+		else {
+			terminal.println("Dealer blackjack, you lose");
+		}
+	}
+
+	private void printMessage(Player player, Hand dealerHand) {
+		int hands = player.getHandCount();
+		terminal.println("RESULTS");
+		for (int i = 0; i < hands; i++) {
+			terminal.printHand(handLabel(i, hands), player.getHand(i), false);
+		}
+		terminal.printHand("Dealer's hand: ", dealerHand, false);
+
+		long netWinnings = 0;
+		for (int i = 0; i < hands; i++) {
+			Hand hand = player.getHand(i);
+			netWinnings += hand.getWalletChange() - hand.getBet();
+			if (hands == 1) {
+				printResult(hand, dealerHand);
+			}
+			else {
+				printResult(hand, HAND_NAMES[hands][i], dealerHand);
+			}
+		}
+		if (hands == 1) {
+			return;
+		}
+
+		if (netWinnings < 0) {
+			terminal.printCredits("You lose ", -netWinnings, " credit(s).");
+		}
+		else if (netWinnings == 0) {
+			terminal.println("You came out even.");
+		}
+		else {
+			terminal.printCredits("You win ", netWinnings, " credit(s).");
+		}
+	}
+
+	// "Your hand" alone, "Your left hand" and "Your right hand" for two, numbered from one for more.
+	static String handLabel(int index, int hands) {
+		return HAND_LABELS[hands][index];
+	}
+
+	static String playingLabel(int index, int hands) {
+		return PLAYING[hands][index];
+	}
+
+	private static String[][] handNames(String prefix, String suffix) {
+		String[][] names = new String[Player.MAX_HANDS + 1][];
+		for (int hands = 1; hands <= Player.MAX_HANDS; hands++) {
+			names[hands] = new String[hands];
+			for (int i = 0; i < hands; i++) {
+				String name = (hands == 1) ? "hand" : (hands > 2) ? "hand " + (i + 1) : (i == 0) ? "left hand" : "right hand";
+				names[hands][i] = prefix + name + suffix;
+			}
+		}
+		return names;
+	}
+
+	private void printResult(Hand playerHand, Hand dealerHand) {
+		long bet = playerHand.getBet();
+		if (playerHand.getOutcome() == Round.SURRENDER) {
+			terminal.printCredits("You surrender. ", playerHand.getWalletChange(), " credit(s) returned.");
+		}
+		else if (playerHand.getBust()) {
+			terminal.printCredits("You bust. You lose ", bet, " credit(s).");
+		}
+		else if (dealerHand.getBust()) {
+			terminal.printCredits("Dealer busts. You win ", bet, " credit(s).");
+		}
+		else if (playerHand.getOutcome() == Round.LOSE) {
+			terminal.printCredits("You lose. You lose ", bet, " credit(s).");
+		}
+		else if (playerHand.getOutcome() == Round.WIN) {
+			terminal.printCredits("You win. You win ", bet, " credit(s).");
+		}
+		else if (playerHand.getOutcome() == Round.PUSH) {
+			terminal.printCredits("It's a push. ", bet, " credit(s) returned.");
+		}
+	}
+
+	private void printResult(Hand hand, String name, Hand dealerHand) {
+		if (hand.getBust()) {
+			terminal.println(name, " busts.");
+		}
+		else if (dealerHand.getBust()) {
+			terminal.println("Dealer busts. ", name, " wins.");
+		}
+		else if (hand.getOutcome() == Round.LOSE) {
+			terminal.println(name, " loses.");
+		}
+		else if (hand.getOutcome() == Round.WIN) {
+			terminal.println(name, " wins.");
+		}
+		else if (hand.getOutcome() == Round.PUSH) {
+			terminal.println(name, " pushes.");
+		}
+	}
+}
@@ -1,188 +1,253 @@
-import java.io.Serializable;
-import java.util.ArrayList;
-
-class Hand implements Serializable {
-
-    private final static int BLACKJACK = 21;
-    private final static int ALT_ACE_VALUE = 10;
-
-    private final ArrayList<Card> cards = new ArrayList<Card>(2);
-
-	private double bet = 0;
-	private int handValue = 0;
-	private boolean bust = false;
-	private int outcome = 0;
-
-	Hand(Deck deck) {
-	    cards.add(deck.removeNextCard());
-	    cards.add(deck.removeNextCard());
-	    updateHandValue();
-    }
-
-	Hand(Deck deck, Card card) {
-		cards.add(card);
-		if (deck.removeCard(card)) {
-			cards.add(deck.removeNextCard());
-		}
-		cards.add(deck.removeNextCard());
-		updateHandValue();
-	}
-
-	@SuppressWarnings("unused")
-	Hand(Deck deck, Card card1, Card card2) {
-		cards.add(card1);
-		cards.add(card2);
-		if (deck.removeCard(card1)) {
-			cards.add(deck.removeNextCard());
-		}
-		if (deck.removeCard(card2)) {
-			cards.add(deck.removeNextCard());
-		}
-		updateHandValue();
-	}
-
-	public String toString(boolean hide) {
-		String handString = "";
-		if (hide) {
-			for (int i = 1; i < cards.size(); i++) {
-				handString += cards.get(i) + " ";
-			}
-			handString = handString.trim() +  ", 1 card hidden";
-		}
-		else {
-			for (Card card : cards)
-				handString += card + " ";
-		}
-		return handString;
-	}
-
-    public void addNextCard(Deck deck) {
-        Card tempCard = deck.removeNextCard();
-        if (tempCard != null) {
-            cards.add(tempCard);
-        }
-        updateHandValue();
-    }
-
-	public Card removeCard() {
-		return cards.remove(1);
-	}
-
-	public void returnHand(Deck deck) {
-		for (Card card : cards) {
-			deck.addCard(card);
-		}
-		cards.clear();
-	}
-
-	public boolean canSplit() {
-		if (cards.size() == 2) {
-			if (cards.get(0).getName().equals(cards.get(1).getName())) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-    public boolean pairOfAces() {
-	    if (cards.size() == 2) {
-		    if (cards.get(0).getName().equals(Card.CardName.ACE.toString()) && cards.get(1).getName().equals(Card.CardName.ACE.toString())) {
-			    return true;
-		    }
-	    }
-	    return false;
-    }
-
-    public int getHandValue() {
-        updateHandValue();
-        return handValue;
-    }
-
-	public boolean getBust() {
-		updateHandValue();
-		return bust;
-	}
-
-	public double getBet() {
-		return bet;
-	}
-
-	public void setBet(double bet) {
-		this.bet = bet;
-	}
-
-	public double getOutcome() {
-		return outcome;
-	}
-
-	public void setOutcome(int outcome) {
-		this.outcome = outcome;
-	}
-
-	public void doubleDown() {
-		bet = bet * 2;
-	}
-
-    private void updateHandValue() {
-        int tempHandValue;
-        int cardValue;
-        int numAces = 0;
-
-        handValue = 0;
-        for (Card card : this.cards) {
-            cardValue = card.getValue();
-            handValue += cardValue;
-
-            if (cardValue == 1) {
-                numAces++;
-            }
-        }
-
-        tempHandValue = this.handValue;
-        for (int i = 0; i < numAces; i++) {
-            tempHandValue += ALT_ACE_VALUE;
-
-	        if (tempHandValue <= BLACKJACK) {
-                handValue = tempHandValue;
-            }
-        }
-
-	    if (handValue > BLACKJACK) {
-		    bust = true;
-	    }
-    }
-
-    public int compare(Hand otherHand) {
-        if (getHandValue() > otherHand.getHandValue()) {
-            return 1;
-        }
-        else if (getHandValue() < otherHand.getHandValue()) {
-            return -1;
-        }
-        else {
-            return 0;
-        }
-    }
-
-    public boolean checkBlackJack() {
-        updateHandValue();
-        return cards.size() == 2 && handValue == BLACKJACK;
-    }
-
-	public double getWalletChange() {
-		double walletChange = 0;
-		if (outcome == -1) {
-			walletChange = 0;
-		}
-		else if (outcome == 0) {
-			walletChange = bet;
-		}
-		else if (outcome == 1) {
-			walletChange = bet * 2;
-		}
-		else if (outcome == 2) {
-			walletChange = bet * 2.5;
-		}
-		return walletChange;
-	}
-}
+
+class Hand {
+
+    private final static int BLACKJACK = 21;
+    private final static int ALT_ACE_VALUE = 10;
+    private final static int ACE = Card.CardName.ACE.ordinal() + 1;
+    private final static int MAX_MOVES = 10;
+
+    // 22 cards is the most a hand can hold without busting: 21 aces and one more card.
+    public final static int MAX_CARDS = 22;
+
+    // Two-card categories: hard 4-21, soft 12-21, then pairs A-10.
+    public final static int CATEGORIES = 38;
+    private final static int HARD = -4;
+    private final static int SOFT = 18 - 12;
+    private final static int PAIR = 28 - 1;
+
+    private final Card[] cards = new Card[MAX_CARDS];
+    private final byte[] moves = new byte[MAX_MOVES];
+
+	private long bet = 0;
+	private long insurance = 0;
+	private long walletChange = 0;
+	private int hardValue = 0;
+	private int aces = 0;
+	private int cardCount = 0;
+	private int handValue = 0;
+	private boolean soft = false;
+	private boolean bust = false;
+	private int outcome = 0;
+	private int moveCount = 0;
+
+	Hand() {
+	}
+
+	@SuppressWarnings("unused")
+	Hand(Deck deck, Card card1, Card card2) {
+		addCard(card1);
+		addCard(card2);
+		if (deck.removeCard(card1)) {
+			addCard(deck.removeNextCard());
+		}
+		if (deck.removeCard(card2)) {
+			addCard(deck.removeNextCard());
+		}
+	}
+
+	public String toString(boolean hide) {
+		return appendTo(new StringBuilder(), hide).toString();
+	}
+
+	public StringBuilder appendTo(StringBuilder out, boolean hide) {
+		if (hide) {
+			for (int i = 1; i < cardCount; i++) {
+				if (i > 1) {
+					out.append(' ');
+				}
+				out.append(cards[i].getName());
+			}
+			return out.append(", 1 card hidden");
+		}
+		for (int i = 0; i < cardCount; i++) {
+			out.append(cards[i].getName()).append(' ');
+		}
+		return out;
+	}
+
+	public void reset() {
+		bet = 0;
+		insurance = 0;
+		walletChange = 0;
+		hardValue = 0;
+		aces = 0;
+		cardCount = 0;
+		handValue = 0;
+		soft = false;
+		bust = false;
+		outcome = 0;
+		moveCount = 0;
+	}
+
+	public void deal(Deck deck) {
+		reset();
+		addCard(deck.removeNextCard());
+		addCard(deck.removeNextCard());
+	}
+
+	public void deal(Deck deck, Card card) {
+		reset();
+		addCard(card);
+		addCard(deck.removeNextCard());
+	}
+
+    public void addNextCard(Deck deck) {
+        Card tempCard = deck.removeNextCard();
+        if (tempCard != null) {
+            addCard(tempCard);
+        }
+    }
+
+	public Card getCard(int index) {
+		return cards[index];
+	}
+
+	public int getCardCount() {
+		return cardCount;
+	}
+
+	public Card getUpCard() {
+		return cards[1];
+	}
+
+	public Card removeCard() {
+		Card card = cards[--cardCount];
+		cards[cardCount] = null;
+		hardValue -= card.getValue();
+		if (card.getValue() == 1) {
+			aces--;
+		}
+		updateHandValue();
+		return card;
+	}
+
+	public boolean canSplit() {
+		if (cardCount == 2) {
+			if (cards[0].getRank() == cards[1].getRank()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+    public boolean pairOfAces() {
+	    if (cardCount == 2) {
+		    if (cards[0].getRank() == ACE && cards[1].getRank() == ACE) {
+			    return true;
+		    }
+	    }
+	    return false;
+    }
+
+    public int getHandValue() {
+        return handValue;
+    }
+
+	public boolean getBust() {
+		return bust;
+	}
+
+	public boolean isSoft() {
+		return soft;
+	}
+
+	public long getBet() {
+		return bet;
+	}
+
+	public void setBet(long bet) {
+		this.bet = bet;
+	}
+
+	public int getOutcome() {
+		return outcome;
+	}
+
+	public void setOutcome(int outcome, RuleSet rules) {
+		this.outcome = outcome;
+		walletChange = rules.payout(outcome, bet);
+	}
+
+	public long getInsurance() {
+		return insurance;
+	}
+
+	public void setInsurance(long insurance) {
+		this.insurance = insurance;
+	}
+
+	public void winInsurance() {
+		walletChange += insurance * 3;
+	}
+
+	public void doubleDown() {
+		bet = bet * 2;
+	}
+
+	public void addMove(Strategy.Move move) {
+		if (moveCount < MAX_MOVES) {
+			moves[moveCount++] = (byte) (move.ordinal() + 1);
+		}
+	}
+
+	public boolean isDoubled() {
+		return moveCount > 0 && moves[0] == Strategy.Move.DOUBLE.ordinal() + 1;
+	}
+
+	public int getMoveCount() {
+		return moveCount;
+	}
+
+	public byte getMove(int index) {
+		return moves[index];
+	}
+
+	private void addCard(Card card) {
+		cards[cardCount++] = card;
+		hardValue += card.getValue();
+		if (card.getValue() == 1) {
+			aces++;
+		}
+		updateHandValue();
+	}
+
+    private void updateHandValue() {
+        soft = aces > 0 && hardValue + ALT_ACE_VALUE <= BLACKJACK;
+        handValue = soft ? hardValue + ALT_ACE_VALUE : hardValue;
+        bust = handValue > BLACKJACK;
+    }
+
+    public int compare(Hand otherHand) {
+        if (handValue > otherHand.handValue) {
+            return 1;
+        }
+        else if (handValue < otherHand.handValue) {
+            return -1;
+        }
+        else {
+            return 0;
+        }
+    }
+
+    public int getCategory() {
+        if (canSplit()) {
+            return PAIR + cards[0].getValue();
+        }
+        return handValue + (soft ? SOFT : HARD);
+    }
+
+    public static String categoryName(int category) {
+        if (category >= PAIR + 1) {
+            return (category == PAIR + 1) ? "A,A" : (category - PAIR) + "," + (category - PAIR);
+        }
+        return (category >= SOFT + 12) ? "A," + (category - SOFT - 11) : String.valueOf(category - HARD);
+    }
+
+    public boolean checkBlackJack() {
+        return cardCount == 2 && handValue == BLACKJACK;
+    }
+
+	public long getWalletChange() {
+		return walletChange;
+	}
+}
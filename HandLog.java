@@ -0,0 +1,139 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+class HandLog implements Closeable {
+
+	public final static int RECORD_SIZE = 64;
+	public final static int MAX_CARDS = 12;
+	public final static int MAX_MOVES = 10;
+	public final static byte SPLIT = 1;
+	public final static String SUFFIX = ".log";
+
+	private final static int RECORDS_PER_SEGMENT = 1 << 18;
+
+	private final Path directory;
+	private final String name;
+	private int segment;
+	private long round = 0;
+	private FileChannel channel = null;
+	private MappedByteBuffer buffer = null;
+
+	HandLog(Path directory, String name) throws IOException {
+		this.directory = directory;
+		this.name = name;
+		Files.createDirectories(directory);
+		segment = nextSegment();
+		round = lastRound();
+		open();
+	}
+
+	public void append(Round round) {
+		this.round++;
+		for (int seat = 0; seat < round.getSeats(); seat++) {
+			Player player = round.getPlayer(seat);
+			byte flags = (player.getHandCount() > 1) ? SPLIT : 0;
+			for (int i = 0; i < player.getHandCount(); i++) {
+				append(player.getHand(i), round.getDealerHand(), flags, (byte) seat);
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			buffer.force();
+			channel.truncate((long) buffer.position());
+			channel.close();
+			channel = null;
+		}
+	}
+
+	private void append(Hand hand, Hand dealerHand, byte flags, byte seat) {
+		if (!buffer.hasRemaining()) {
+			roll();
+		}
+		buffer.putLong(round);
+		buffer.putLong(hand.getBet());
+		buffer.putLong(hand.getWalletChange() - hand.getInsurance());
+		buffer.put((byte) hand.getOutcome());
+		buffer.put(flags);
+		buffer.put((byte) hand.getCardCount());
+		buffer.put((byte) dealerHand.getCardCount());
+		putCards(hand);
+		putCards(dealerHand);
+		for (int i = 0; i < MAX_MOVES; i++) {
+			buffer.put((i < hand.getMoveCount()) ? hand.getMove(i) : 0);
+		}
+		buffer.put((byte) hand.getMoveCount());
+		buffer.put(seat);
+	}
+
+	private void putCards(Hand hand) {
+		for (int i = 0; i < MAX_CARDS; i++) {
+			buffer.put((i < hand.getCardCount()) ? (byte) hand.getCard(i).getCode() : 0);
+		}
+	}
+
+	private void roll() {
+		try {
+			close();
+			segment++;
+			open();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void open() throws IOException {
+		Path path = path(segment);
+		channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) RECORDS_PER_SEGMENT * RECORD_SIZE);
+	}
+
+	// Round numbers carry on from the writer's earlier sessions, so a reader sees where each round ends.
+	private long lastRound() throws IOException {
+		for (int previous = segment - 1; previous >= 0; previous--) {
+			Path path = path(previous);
+			if (!Files.exists(path)) {
+				continue;
+			}
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				for (int position = records.limit() - RECORD_SIZE; position >= 0; position -= RECORD_SIZE) {
+					long last = records.getLong(position);
+					if (last != 0) {
+						return last;
+					}
+				}
+			}
+		}
+		return 0;
+	}
+
+	private Path path(int segment) {
+		return directory.resolve(String.format("%s-%06d%s", name, segment, SUFFIX));
+	}
+
+	private int nextSegment() throws IOException {
+		int next = 0;
+		try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, name + "-*" + SUFFIX)) {
+			for (Path path : paths) {
+				String fileName = path.getFileName().toString();
+				String index = fileName.substring(name.length() + 1, fileName.length() - SUFFIX.length());
+				try {
+					next = Math.max(next, Integer.parseInt(index) + 1);
+				} catch (NumberFormatException e) {
+					continue;
+				}
+			}
+		}
+		return next;
+	}
+}
@@ -0,0 +1,90 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+
+class HandLogReader {
+
+	private final static int MOVES = 52;
+	private final static int SEAT = 63;
+
+	private final Path directory;
+	private String writer = null;
+	private long lastRound = 0;
+	private int lastSeat = -1;
+	private long stake = 0;
+	private long delta = 0;
+
+	HandLogReader(Path directory) {
+		this.directory = directory;
+	}
+
+	public Statistics read() throws IOException {
+		ArrayList<Path> segments = new ArrayList<Path>();
+		try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, "*" + HandLog.SUFFIX)) {
+			for (Path path : paths) {
+				segments.add(path);
+			}
+		}
+		Collections.sort(segments);
+
+		Statistics statistics = new Statistics();
+		for (Path segment : segments) {
+			read(segment, statistics);
+		}
+		endRound(statistics);
+		return statistics;
+	}
+
+	private void read(Path segment, Statistics statistics) throws IOException {
+		String fileName = segment.getFileName().toString();
+		String segmentWriter = fileName.substring(0, Math.max(0, fileName.lastIndexOf('-')));
+		if (!segmentWriter.equals(writer)) {
+			endRound(statistics);
+			writer = segmentWriter;
+		}
+
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		for (int position = 0; position + HandLog.RECORD_SIZE <= buffer.limit(); position += HandLog.RECORD_SIZE) {
+			long round = buffer.getLong(position);
+			if (round == 0) {
+				break;
+			}
+			long bet = buffer.getLong(position + 8);
+			long walletChange = buffer.getLong(position + 16);
+			int outcome = buffer.get(position + 24);
+			boolean doubled = buffer.get(position + MOVES) == Strategy.Move.DOUBLE.ordinal() + 1;
+			int seat = buffer.get(position + SEAT);
+
+			if (round != lastRound) {
+				endRound(statistics);
+				lastRound = round;
+			}
+			if (seat != lastSeat) {
+				lastSeat = seat;
+				stake += doubled ? bet / 2 : bet;
+			}
+			statistics.recordHand(outcome, bet);
+			delta += walletChange - bet;
+		}
+	}
+
+	private void endRound(Statistics statistics) {
+		if (lastRound != 0) {
+			statistics.recordRound(stake, delta);
+		}
+		lastRound = 0;
+		lastSeat = -1;
+		stake = 0;
+		delta = 0;
+	}
+}
@@ -0,0 +1,106 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+class HouseEdgeCache {
+
+	private final static int MAGIC = 0x424A4845;
+	private final static short VERSION = 1;
+	private final static int HEADER_SIZE = 10;
+	private final static int ENTRY_SIZE = 24;
+
+	private final Path path;
+	private final HashMap<Long, Entry> entries = new HashMap<Long, Entry>();
+
+	private static class Entry {
+
+		final long rounds;
+		final double houseEdge;
+
+		Entry(long rounds, double houseEdge) {
+			this.rounds = rounds;
+			this.houseEdge = houseEdge;
+		}
+	}
+
+	HouseEdgeCache(Path path) throws IOException {
+		this.path = path;
+		load();
+	}
+
+	// Only results from at least as many rounds as requested count as a hit.
+	public boolean contains(RuleSet rules, long rounds) {
+		Entry entry = entries.get(rules.fingerprint());
+		return entry != null && entry.rounds >= rounds;
+	}
+
+	public double getHouseEdge(RuleSet rules) {
+		return entries.get(rules.fingerprint()).houseEdge;
+	}
+
+	public long getRounds(RuleSet rules) {
+		return entries.get(rules.fingerprint()).rounds;
+	}
+
+	public void put(RuleSet rules, long rounds, double houseEdge) throws IOException {
+		entries.put(rules.fingerprint(), new Entry(rounds, houseEdge));
+		save();
+	}
+
+	private void load() throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			buffer = ByteBuffer.allocate((int) channel.size());
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				continue;
+			}
+		} catch (NoSuchFileException e) {
+			return;
+		}
+		buffer.flip();
+
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+				throw new IOException("Not a house edge cache: " + path);
+			}
+			int count = buffer.getInt();
+			for (int i = 0; i < count; i++) {
+				long fingerprint = buffer.getLong();
+				long rounds = buffer.getLong();
+				entries.put(fingerprint, new Entry(rounds, buffer.getDouble()));
+			}
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated house edge cache: " + path, e);
+		}
+	}
+
+	private void save() throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + entries.size() * ENTRY_SIZE);
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+		buffer.putInt(entries.size());
+		for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+			buffer.putLong(entry.getKey());
+			buffer.putLong(entry.getValue().rounds);
+			buffer.putDouble(entry.getValue().houseEdge);
+		}
+		buffer.flip();
+
+		Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+		Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
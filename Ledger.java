@@ -0,0 +1,111 @@
+import java.nio.ByteBuffer;
+
+class Ledger {
+
+	public final static int BATCH = 1024;
+	public final static int BYTES = 8 * 5;
+
+	private final long[] stakes = new long[BATCH];
+	private final long[] deltas = new long[BATCH];
+	private int pending = 0;
+
+	private long rounds = 0;
+	private long staked = 0;
+	private long net = 0;
+	// Welford moments of each round's return per unit staked
+	private double mean = 0;
+	private double m2 = 0;
+
+	public void record(long stake, long delta) {
+		stakes[pending] = stake;
+		deltas[pending] = delta;
+		if (++pending == BATCH) {
+			settle();
+		}
+	}
+
+	public void settle() {
+		if (pending == 0) {
+			return;
+		}
+		long batchStaked = 0;
+		long batchNet = 0;
+		double batchMean = 0;
+		double batchM2 = 0;
+		for (int i = 0; i < pending; i++) {
+			batchStaked += stakes[i];
+			batchNet += deltas[i];
+			double value = (stakes[i] == 0) ? 0 : (double) deltas[i] / stakes[i];
+			double difference = value - batchMean;
+			batchMean += difference / (i + 1);
+			batchM2 += difference * (value - batchMean);
+		}
+		combine(pending, batchMean, batchM2);
+		rounds += pending;
+		staked = Math.addExact(staked, batchStaked);
+		net = Math.addExact(net, batchNet);
+		pending = 0;
+	}
+
+	public void read(ByteBuffer buffer) {
+		rounds = buffer.getLong();
+		staked = buffer.getLong();
+		net = buffer.getLong();
+		mean = buffer.getDouble();
+		m2 = buffer.getDouble();
+		pending = 0;
+	}
+
+	public void write(ByteBuffer buffer) {
+		settle();
+		buffer.putLong(rounds);
+		buffer.putLong(staked);
+		buffer.putLong(net);
+		buffer.putDouble(mean);
+		buffer.putDouble(m2);
+	}
+
+	public void merge(Ledger other) {
+		settle();
+		other.settle();
+		combine(other.rounds, other.mean, other.m2);
+		rounds += other.rounds;
+		staked = Math.addExact(staked, other.staked);
+		net = Math.addExact(net, other.net);
+	}
+
+	private void combine(long count, double otherMean, double otherM2) {
+		if (count == 0) {
+			return;
+		}
+		double total = rounds + count;
+		double difference = otherMean - mean;
+		mean += difference * count / total;
+		m2 += otherM2 + difference * difference * rounds * count / total;
+	}
+
+	public long getRounds() {
+		settle();
+		return rounds;
+	}
+
+	public long getStaked() {
+		settle();
+		return staked;
+	}
+
+	public long getNet() {
+		settle();
+		return net;
+	}
+
+	public double getMean() {
+		settle();
+		return mean;
+	}
+
+	public double getVariance() {
+		settle();
+		return (rounds < 2) ? 0 : m2 / (rounds - 1);
+	}
+}
@@ -0,0 +1,79 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+class Metrics {
+
+	enum Counter {HANDS, SPLITS, DOUBLES, BUSTS, RESHUFFLES}
+
+	enum Timer {ROUND, DEALER, DECISION}
+
+	// Latency is timed on one round in SAMPLE; counters see every round.
+	public final static int SAMPLE = 64;
+
+	private final static int BUCKETS = 64;
+	private final static int COUNTERS = Counter.values().length;
+	private final static int TIMERS = Timer.values().length;
+
+	private final LongAdder[] counters = new LongAdder[COUNTERS];
+	private final AtomicLongArray histograms = new AtomicLongArray(TIMERS * BUCKETS);
+
+	Metrics() {
+		for (int i = 0; i < COUNTERS; i++) {
+			counters[i] = new LongAdder();
+		}
+	}
+
+	// Publishes a thread's local counts, indexed by Counter ordinal, and clears them.
+	public void add(long[] counts) {
+		for (int i = 0; i < COUNTERS; i++) {
+			if (counts[i] != 0) {
+				counters[i].add(counts[i]);
+				counts[i] = 0;
+			}
+		}
+	}
+
+	public void record(Timer timer, long nanos) {
+		histograms.incrementAndGet(timer.ordinal() * BUCKETS + bucket(nanos));
+	}
+
+	public long get(Counter counter) {
+		return counters[counter.ordinal()].sum();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder();
+		for (Counter counter : Counter.values()) {
+			report.append(String.format("%-12s %14d%n", counter.name().toLowerCase(), get(counter)));
+		}
+		report.append(String.format("%-12s %10s %10s %10s %10s %10s%n", "latency(ns)", "samples", "p50", "p90", "p99", "max"));
+		for (Timer timer : Timer.values()) {
+			long samples = 0;
+			for (int bucket = 0; bucket < BUCKETS; bucket++) {
+				samples += histograms.get(timer.ordinal() * BUCKETS + bucket);
+			}
+			report.append(String.format("%-12s %10d %10d %10d %10d %10d%n", timer.name().toLowerCase(), samples,
+					percentile(timer, samples, 0.50), percentile(timer, samples, 0.90),
+					percentile(timer, samples, 0.99), percentile(timer, samples, 1)));
+		}
+		return report.toString();
+	}
+
+	// Upper bound of the power-of-two bucket holding the given fraction of samples.
+	private long percentile(Timer timer, long samples, double fraction) {
+		long target = (long) Math.ceil(samples * fraction);
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS && samples > 0; bucket++) {
+			seen += histograms.get(timer.ordinal() * BUCKETS + bucket);
+			if (seen >= target) {
+				return (bucket >= 62) ? Long.MAX_VALUE : (2L << bucket) - 1;
+			}
+		}
+		return 0;
+	}
+
+	private static int bucket(long nanos) {
+		return (nanos <= 0) ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+	}
+}
@@ -0,0 +1,35 @@
+import java.math.BigDecimal;
+
+final class Money {
+
+	public final static int DIGITS = 2;
+	public final static long UNIT = 100;
+
+	private Money() {
+	}
+
+	public static long credits(long credits) {
+		return Math.multiplyExact(credits, UNIT);
+	}
+
+	public static long parse(String text) {
+		try {
+			return new BigDecimal(text).movePointRight(DIGITS).longValueExact();
+		} catch (ArithmeticException e) {
+			throw new NumberFormatException("Not a whole number of cents: " + text);
+		}
+	}
+
+	public static String format(long amount) {
+		return appendTo(new StringBuilder(), amount).toString();
+	}
+
+	public static StringBuilder appendTo(StringBuilder out, long amount) {
+		long whole = Math.abs(amount / UNIT);
+		long cents = Math.abs(amount % UNIT);
+		if (amount < 0) {
+			out.append('-');
+		}
+		return out.append(whole).append('.').append((cents < 10) ? "0" : "").append(cents);
+	}
+}
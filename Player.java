@@ -1,76 +1,110 @@
-import java.io.Serializable;
-import java.util.ArrayList;
-
-class Player implements Serializable {
-
-	private final ArrayList<Hand> hands = new ArrayList<Hand>();
-	private double wallet;
-	private int highMark;
-
-	public Player() {
-		this.wallet = (double) 100;
-		this.highMark = (int) this.wallet;
-	}
-
-	@Override
-	public String toString() {
-		String message = "Your hand: ";
-		for (Hand hand : hands) {
-			message += hand.toString(false);
-		}
-		return message;
-	}
-
-	public void newGame(Deck deck) {
-		for (Hand hand : hands) {
-			hand.returnHand(deck);
-		}
-		hands.clear();
-	}
-
-	public void addHand(Hand hand) {
-		hands.add(hand);
-	}
-
-	public double getWallet() {
-		return wallet;
-	}
-
-	public int getHighMark() {
-		return highMark;
-	}
-
-	private void setHighMark(double highMark) {
-		if (highMark > this.highMark) {
-			this.highMark = (int) highMark;
-		}
-	}
-
-	public boolean decreaseWallet(double amount) {
-		if (amount > 0 && amount <= wallet) {
-			wallet -= amount;
-			return true;
-		}
-		return false;
-	}
-
-	private void increaseWallet(double amount) {
-		wallet += amount;
-	}
-
-
-	public void settle() {
-		for (Hand hand : hands) {
-			increaseWallet(hand.getWalletChange());
-		}
-		setHighMark(wallet);
-	}
-
-	public boolean canPlay() {
-		return wallet > 0;
-	}
-
-	public boolean canDoubleDown(double bet) {
-		return wallet >= bet;
-	}
-}
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+class Player {
+
+	public final static int BYTES = 16;
+	public final static int MAX_HANDS = 4;
+
+	private final Hand[] hands = new Hand[MAX_HANDS];
+	private int handCount = 0;
+	private long wallet;
+	private long highMark;
+
+	public Player() {
+		this(Money.credits(100));
+	}
+
+	public Player(long wallet) {
+		this.wallet = wallet;
+		this.highMark = wallet;
+	}
+
+	@Override
+	public String toString() {
+		return appendTo(new StringBuilder()).toString();
+	}
+
+	public StringBuilder appendTo(StringBuilder out) {
+		out.append("Your hand: ");
+		for (int i = 0; i < handCount; i++) {
+			hands[i].appendTo(out, false);
+		}
+		return out;
+	}
+
+	public static Player read(ByteBuffer buffer) throws IOException {
+		Player player = new Player(buffer.getLong());
+		player.highMark = buffer.getLong();
+		if (player.wallet < 0 || player.highMark < player.wallet) {
+			throw new IOException("Corrupt save");
+		}
+		return player;
+	}
+
+	public void write(ByteBuffer buffer) {
+		buffer.putLong(wallet);
+		buffer.putLong(highMark);
+	}
+
+	public void newGame() {
+		handCount = 0;
+	}
+
+	public Hand newHand() {
+		if (hands[handCount] == null) {
+			hands[handCount] = new Hand();
+		}
+		return hands[handCount++];
+	}
+
+	public int getHandCount() {
+		return handCount;
+	}
+
+	public Hand getHand(int index) {
+		return hands[index];
+	}
+
+	public long getWallet() {
+		return wallet;
+	}
+
+	public long getHighMark() {
+		return highMark;
+	}
+
+	private void setHighMark(long highMark) {
+		if (highMark > this.highMark) {
+			this.highMark = highMark;
+		}
+	}
+
+	public boolean decreaseWallet(long amount) {
+		if (amount > 0 && amount <= wallet) {
+			wallet -= amount;
+			return true;
+		}
+		return false;
+	}
+
+	private void increaseWallet(long amount) {
+		wallet += amount;
+	}
+
+
+	public void settle() {
+		for (int i = 0; i < handCount; i++) {
+			increaseWallet(hands[i].getWalletChange());
+		}
+		setHighMark(wallet);
+	}
+
+	public boolean canPlay() {
+		return wallet > 0;
+	}
+
+	public boolean canDoubleDown(long bet) {
+		return wallet >= bet;
+	}
+}
@@ -0,0 +1,44 @@
+
+class Rng {
+
+	private final static long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private long state;
+
+	Rng(long seed) {
+		state = seed;
+	}
+
+	public static long seed(long root, long index) {
+		return mix(root + (index + 1) * GOLDEN_GAMMA);
+	}
+
+	public long getState() {
+		return state;
+	}
+
+	public long nextLong() {
+		state += GOLDEN_GAMMA;
+		return mix(state);
+	}
+
+	public int nextInt(int bound) {
+		int bits;
+		int value;
+		do {
+			bits = (int) (nextLong() >>> 33);
+			value = bits % bound;
+		} while (bits - value + (bound - 1) < 0);
+		return value;
+	}
+
+	public Rng split() {
+		return new Rng(nextLong());
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,478 @@
+
+class Round {
+
+	// Choices a seat makes during the player turn, in the order nextDecision() reaches them.
+	enum Decision {SURRENDER, SPLIT_ACES, SPLIT, MOVE}
+
+	public final static int SURRENDER = -2;
+	public final static int LOSE = -1;
+	public final static int PUSH = 0;
+	public final static int WIN = 1;
+	public final static int BLACKJACK = 2;
+	public final static int MAX_SEATS = 7;
+
+	private final static int FLUSH = 1024;
+	private final static int SEAT = 0;
+	private final static int ACES = 1;
+	private final static int PAIRS = 2;
+	private final static int MOVES = 3;
+
+	private final Deck deck;
+	private final Player[] players;
+	private final boolean[] finished;
+	private final byte[] categories;
+	private final Dealer dealer;
+	private final RuleSet rules;
+	private final Terminal terminal;
+	private final Hand dealerHand = new Hand();
+	private HandLog log = null;
+	private Metrics metrics = null;
+	private final long[] counts = new long[Metrics.Counter.values().length];
+	private long rounds = 0;
+	private boolean timed = false;
+	private int turnSeat = 0;
+	private int turnHand = 0;
+	private int phase = SEAT;
+	private Decision decision = null;
+	private boolean firstMove;
+	private boolean canDouble;
+	private boolean stand;
+
+	Round(Deck deck, Player player, Dealer dealer) {
+		this(deck, new Player[] {player}, dealer, null);
+	}
+
+	Round(Deck deck, Player player, Dealer dealer, Terminal terminal) {
+		this(deck, new Player[] {player}, dealer, terminal);
+	}
+
+	Round(Deck deck, Player[] players, Dealer dealer, Terminal terminal) {
+		if (players.length < 1 || players.length > MAX_SEATS) {
+			throw new IllegalArgumentException("A table seats 1 to " + MAX_SEATS + " players: " + players.length);
+		}
+		this.deck = deck;
+		this.players = players;
+		this.finished = new boolean[players.length];
+		this.categories = new byte[players.length];
+		this.dealer = dealer;
+		this.rules = dealer.getRules();
+		this.terminal = terminal;
+	}
+
+	public void setLog(HandLog log) {
+		this.log = log;
+	}
+
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	// Publishes counts still held by this round; they are otherwise published every FLUSH rounds.
+	public void flushMetrics() {
+		if (metrics != null) {
+			metrics.add(counts);
+		}
+	}
+
+	// Deals only when every seat can cover the bet, so a short seat never leaves the others debited.
+	public boolean play(long bet, Strategy strategy) {
+		if (bet <= 0) {
+			return false;
+		}
+		for (Player player : players) {
+			if (!player.canDoubleDown(bet)) {
+				return false;
+			}
+		}
+		RoundEvent event = new RoundEvent();
+		event.begin();
+		int shuffles = deck.getShuffles();
+		long startTime = 0;
+		if (metrics != null) {
+			timed = (++rounds & (Metrics.SAMPLE - 1)) == 0;
+			startTime = timed ? System.nanoTime() : 0;
+		}
+
+		deal();
+		for (int seat = 0; seat < players.length; seat++) {
+			placeBet(seat, bet);
+		}
+		offerInsurance(strategy);
+		if (!checkBlackJacks()) {
+			playPlayers(strategy);
+			playDealer();
+			resolve();
+		}
+		settle();
+
+		if (metrics != null) {
+			if (timed) {
+				metrics.record(Metrics.Timer.ROUND, System.nanoTime() - startTime);
+			}
+			count(deck.getShuffles() - shuffles);
+		}
+		if (event.shouldCommit()) {
+			commit(event, deck.getShuffles() != shuffles);
+		}
+		return true;
+	}
+
+	public void deal() {
+		if (deck.needsShuffle()) {
+			deck.shuffle();
+		}
+		for (int seat = 0; seat < players.length; seat++) {
+			players[seat].newGame();
+			Hand hand = players[seat].newHand();
+			hand.deal(deck);
+			categories[seat] = (byte) hand.getCategory();
+		}
+		dealerHand.deal(deck);
+		dealer.setHand(dealerHand);
+		turnSeat = 0;
+		phase = SEAT;
+		decision = null;
+	}
+
+	public boolean placeBet(int seat, long bet) {
+		if (players[seat].decreaseWallet(bet)) {
+			players[seat].getHand(0).setBet(bet);
+			return true;
+		}
+		return false;
+	}
+
+	public void offerInsurance(Strategy strategy) {
+		Card upCard = dealerHand.getUpCard();
+		for (int seat = 0; seat < players.length; seat++) {
+			if (canInsure(seat) && strategy.insurance(players[seat].getHand(0), upCard)) {
+				insure(seat);
+			}
+		}
+	}
+
+	public boolean canInsure(int seat) {
+		long insurance = players[seat].getHand(0).getBet() / 2;
+		return rules.allowsInsurance() && dealerHand.getUpCard().getValue() == 1
+				&& insurance > 0 && players[seat].canDoubleDown(insurance);
+	}
+
+	public void insure(int seat) {
+		Hand hand = players[seat].getHand(0);
+		long insurance = hand.getBet() / 2;
+		players[seat].decreaseWallet(insurance);
+		hand.setInsurance(insurance);
+	}
+
+	// Settles naturals; returns true when no seat has anything left to play.
+	public boolean checkBlackJacks() {
+		boolean dealerBlackJack = dealerHand.checkBlackJack();
+		boolean allFinished = true;
+
+		for (int seat = 0; seat < players.length; seat++) {
+			Hand hand = players[seat].getHand(0);
+			finished[seat] = hand.checkBlackJack() || dealerBlackJack;
+			if (hand.checkBlackJack() && dealerBlackJack) {
+				hand.setOutcome(PUSH, rules);
+			}
+			else if (hand.checkBlackJack()) {
+				hand.setOutcome(BLACKJACK, rules);
+			}
+			else if (dealerBlackJack) {
+				hand.setOutcome(LOSE, rules);
+			}
+			else {
+				allFinished = false;
+			}
+			if (dealerBlackJack) {
+				hand.winInsurance();
+			}
+		}
+		return allFinished;
+	}
+
+	// Plays every seat straight through; a game waiting on its players steps through nextDecision() instead.
+	public void playPlayers(Strategy strategy) {
+		Card upCard = dealerHand.getUpCard();
+		for (int seat = 0; seat < players.length; seat++) {
+			if (!finished[seat]) {
+				playSeat(seat, strategy, upCard);
+			}
+		}
+	}
+
+	// Plays the turn up to the next choice a seat has to make; null once every seat is done.
+	public Decision nextDecision() {
+		while (turnSeat < players.length) {
+			Player player = players[turnSeat];
+			if (phase == SEAT) {
+				phase = ACES;
+				if (finished[turnSeat]) {
+					nextSeat();
+				}
+				else if (rules.allowsSurrender()) {
+					return decision = Decision.SURRENDER;
+				}
+			}
+			else if (phase == ACES) {
+				Hand first = player.getHand(0);
+				phase = PAIRS;
+				turnHand = 0;
+				if (first.pairOfAces() && rules.getMaxHands() > 1 && player.canDoubleDown(first.getBet())) {
+					return decision = Decision.SPLIT_ACES;
+				}
+			}
+			else if (phase == PAIRS) {
+				if (turnHand == player.getHandCount()) {
+					nextSeat();
+					continue;
+				}
+				Hand hand = player.getHand(turnHand);
+				if (hand.canSplit() && !hand.pairOfAces() && player.getHandCount() < rules.getMaxHands()
+						&& player.canDoubleDown(hand.getBet())) {
+					return decision = Decision.SPLIT;
+				}
+				startMoves(player);
+			}
+			else if (!stand && !player.getHand(turnHand).getBust()) {
+				return decision = Decision.MOVE;
+			}
+			else {
+				turnHand++;
+				phase = PAIRS;
+			}
+		}
+		return decision = null;
+	}
+
+	// Answers a SURRENDER, SPLIT_ACES or SPLIT decision.
+	public void decide(boolean yes) {
+		if (decision == null || decision == Decision.MOVE) {
+			throw new IllegalStateException("No yes/no decision pending: " + decision);
+		}
+		Player player = players[turnSeat];
+		Hand hand = getTurnHand();
+		if (decision == Decision.SURRENDER && yes) {
+			hand.setOutcome(SURRENDER, rules);
+			finished[turnSeat] = true;
+			nextSeat();
+		}
+		else if (decision == Decision.SPLIT_ACES && yes) {
+			split(player, hand);
+			nextSeat();
+		}
+		else if (decision == Decision.SPLIT) {
+			if (yes) {
+				split(player, hand);
+			}
+			else {
+				startMoves(player);
+			}
+		}
+		decision = null;
+	}
+
+	// A double the rules or the wallet do not allow is played as a hit.
+	public void move(Strategy.Move move) {
+		if (decision != Decision.MOVE) {
+			throw new IllegalStateException("No move pending: " + decision);
+		}
+		stand = apply(players[turnSeat], getTurnHand(), move, canDoubleDown());
+		firstMove = false;
+		decision = null;
+	}
+
+	public Decision getDecision() {
+		return decision;
+	}
+
+	public Hand getTurnHand() {
+		return players[turnSeat].getHand((phase <= ACES) ? 0 : turnHand);
+	}
+
+	// True while the hand on turn may still double: its first move, allowed by the rules and covered by the wallet.
+	public boolean canDoubleDown() {
+		return decision == Decision.MOVE && firstMove && canDouble
+				&& players[turnSeat].canDoubleDown(getTurnHand().getBet());
+	}
+
+	public void playDealer() {
+		long startTime = timed ? System.nanoTime() : 0;
+		dealer.playHand(deck, terminal);
+		if (timed) {
+			metrics.record(Metrics.Timer.DEALER, System.nanoTime() - startTime);
+		}
+	}
+
+	public void resolve() {
+		for (int seat = 0; seat < players.length; seat++) {
+			if (finished[seat]) {
+				continue;
+			}
+			Player player = players[seat];
+			for (int i = 0; i < player.getHandCount(); i++) {
+				resolve(player.getHand(i));
+			}
+		}
+	}
+
+	public void settle() {
+		for (Player player : players) {
+			player.settle();
+		}
+		if (log != null) {
+			log.append(this);
+		}
+	}
+
+	public int getSeats() {
+		return players.length;
+	}
+
+	public Player getPlayer(int seat) {
+		return players[seat];
+	}
+
+	public int getCategory(int seat) {
+		return categories[seat];
+	}
+
+	public Hand getDealerHand() {
+		return dealerHand;
+	}
+
+	public RuleSet getRules() {
+		return rules;
+	}
+
+	private void commit(RoundEvent event, boolean reshuffled) {
+		int hands = 0;
+		long net = 0;
+		for (Player player : players) {
+			for (int i = 0; i < player.getHandCount(); i++) {
+				Hand hand = player.getHand(i);
+				net += hand.getWalletChange() - hand.getBet() - hand.getInsurance();
+			}
+			hands += player.getHandCount();
+		}
+		event.seats = players.length;
+		event.hands = hands;
+		event.net = net;
+		event.dealerValue = dealerHand.getHandValue();
+		event.reshuffled = reshuffled;
+		event.commit();
+	}
+
+	// Tallies the finished round in one pass, so unmetered play carries no per-hand bookkeeping.
+	private void count(int reshuffles) {
+		int hands = 0;
+		int doubles = 0;
+		int busts = 0;
+		for (Player player : players) {
+			for (int i = 0; i < player.getHandCount(); i++) {
+				Hand hand = player.getHand(i);
+				doubles += hand.isDoubled() ? 1 : 0;
+				busts += hand.getBust() ? 1 : 0;
+			}
+			hands += player.getHandCount();
+		}
+		counts[Metrics.Counter.HANDS.ordinal()] += hands;
+		counts[Metrics.Counter.SPLITS.ordinal()] += hands - players.length;
+		counts[Metrics.Counter.DOUBLES.ordinal()] += doubles;
+		counts[Metrics.Counter.BUSTS.ordinal()] += busts;
+		counts[Metrics.Counter.RESHUFFLES.ordinal()] += reshuffles;
+		if ((rounds & (FLUSH - 1)) == 0) {
+			flushMetrics();
+		}
+	}
+
+	private void nextSeat() {
+		turnSeat++;
+		phase = SEAT;
+	}
+
+	private void startMoves(Player player) {
+		phase = MOVES;
+		firstMove = true;
+		stand = false;
+		canDouble = player.getHandCount() == 1 || rules.doubleAfterSplit();
+	}
+
+	private void playSeat(int seat, Strategy strategy, Card upCard) {
+		Player player = players[seat];
+		Hand first = player.getHand(0);
+		if (rules.allowsSurrender() && strategy.surrender(first, upCard)) {
+			first.setOutcome(SURRENDER, rules);
+			finished[seat] = true;
+			return;
+		}
+		if (first.pairOfAces() && rules.getMaxHands() > 1 && player.canDoubleDown(first.getBet()) && strategy.splitAces(first, upCard)) {
+			split(player, first);
+			return;
+		}
+
+		for (int i = 0; i < player.getHandCount(); i++) {
+			Hand hand = player.getHand(i);
+			while (hand.canSplit() && !hand.pairOfAces() && player.getHandCount() < rules.getMaxHands()
+					&& player.canDoubleDown(hand.getBet()) && strategy.split(hand, upCard)) {
+				split(player, hand);
+			}
+			playHand(player, hand, strategy, upCard);
+		}
+	}
+
+	private void playHand(Player player, Hand hand, Strategy strategy, Card upCard) {
+		boolean stand = false;
+		boolean firstMove = true;
+		boolean canDouble = player.getHandCount() == 1 || rules.doubleAfterSplit();
+
+		while (!stand && !hand.getBust()) {
+			long startTime = timed ? System.nanoTime() : 0;
+			boolean mayDouble = firstMove && canDouble && player.canDoubleDown(hand.getBet());
+			Strategy.Move move = strategy.move(hand, upCard, mayDouble);
+			if (timed) {
+				metrics.record(Metrics.Timer.DECISION, System.nanoTime() - startTime);
+			}
+			stand = apply(player, hand, move, mayDouble);
+			firstMove = false;
+		}
+	}
+
+	// Returns true once the hand stands.
+	private boolean apply(Player player, Hand hand, Strategy.Move move, boolean mayDouble) {
+		if (move == Strategy.Move.DOUBLE && mayDouble) {
+			hand.addMove(Strategy.Move.DOUBLE);
+			hand.addNextCard(deck);
+			player.decreaseWallet(hand.getBet());
+			hand.doubleDown();
+			return true;
+		}
+		if (move == Strategy.Move.STAND) {
+			hand.addMove(Strategy.Move.STAND);
+			return true;
+		}
+		hand.addMove(Strategy.Move.HIT);
+		hand.addNextCard(deck);
+		return false;
+	}
+
+	private void split(Player player, Hand hand) {
+		Hand splitHand = player.newHand();
+		splitHand.deal(deck, hand.removeCard());
+		splitHand.setBet(hand.getBet());
+		player.decreaseWallet(splitHand.getBet());
+		hand.addNextCard(deck);
+	}
+
+	private void resolve(Hand hand) {
+		if (hand.getBust()) {
+			hand.setOutcome(LOSE, rules);
+		}
+		else if (dealerHand.getBust()) {
+			hand.setOutcome(WIN, rules);
+		}
+		else {
+			hand.setOutcome(hand.compare(dealerHand), rules);
+		}
+	}
+}
@@ -0,0 +1,28 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("blackjack.Round")
+@Label("Round")
+@Category("Blackjack")
+@Description("One headless round from deal to settlement")
+@StackTrace(false)
+class RoundEvent extends jdk.jfr.Event {
+
+	@Label("Seats")
+	int seats;
+
+	@Label("Hands")
+	int hands;
+
+	@Label("Net (cents)")
+	long net;
+
+	@Label("Dealer Total")
+	int dealerValue;
+
+	@Label("Reshuffled")
+	boolean reshuffled;
+}
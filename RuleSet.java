@@ -0,0 +1,128 @@
+
+class RuleSet {
+
+	public final static int MAX_DECKS = 8;
+	public final static String USAGE = "decks (N or decks=N), h17|s17, das|nodas, surrender, insurance, 3:2|6:5, splits=N";
+
+	// Part of the fingerprint; bumped when the strategy played under these rules changes, so cached edges go stale.
+	private final static int VERSION = 2;
+
+	private int decks = 6;
+	private boolean hitSoft17 = false;
+	private boolean doubleAfterSplit = true;
+	private boolean surrender = false;
+	private boolean insurance = false;
+	private int payoutNumerator = 3;
+	private int payoutDenominator = 2;
+	private int maxSplits = Player.MAX_HANDS - 1;
+
+	// Comma-separated: a deck count or decks=N, h17|s17, das|nodas, surrender, insurance, 3:2|6:5, splits=N
+	public static RuleSet parse(String spec) {
+		RuleSet rules = new RuleSet();
+		for (String token : spec.toLowerCase().split(",")) {
+			token = token.trim();
+			if (token.isEmpty()) {
+				continue;
+			}
+			else if (token.equals("h17") || token.equals("s17")) {
+				rules.hitSoft17 = token.equals("h17");
+			}
+			else if (token.equals("das") || token.equals("nodas")) {
+				rules.doubleAfterSplit = token.equals("das");
+			}
+			else if (token.equals("surrender")) {
+				rules.surrender = true;
+			}
+			else if (token.equals("insurance")) {
+				rules.insurance = true;
+			}
+			else if (token.equals("3:2") || token.equals("6:5")) {
+				rules.payoutNumerator = token.charAt(0) - '0';
+				rules.payoutDenominator = token.charAt(2) - '0';
+			}
+			else if (token.startsWith("splits=")) {
+				rules.maxSplits = range(token, token.substring(7), 0, Player.MAX_HANDS - 1);
+			}
+			else if (token.startsWith("decks=")) {
+				rules.decks = range(token, token.substring(6), 1, MAX_DECKS);
+			}
+			else {
+				rules.decks = range(token, token, 1, MAX_DECKS);
+			}
+		}
+		return rules;
+	}
+
+	private static int range(String token, String value, int min, int max) {
+		int number;
+		try {
+			number = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Unknown rule: " + token);
+		}
+		if (number < min || number > max) {
+			throw new IllegalArgumentException("Rule out of range " + min + "-" + max + ": " + token);
+		}
+		return number;
+	}
+
+	@Override
+	public String toString() {
+		return "decks=" + decks + (hitSoft17 ? ",h17" : ",s17") + (doubleAfterSplit ? ",das" : ",nodas")
+				+ (surrender ? ",surrender" : "") + (insurance ? ",insurance" : "")
+				+ "," + payoutNumerator + ":" + payoutDenominator + ",splits=" + maxSplits;
+	}
+
+	public long fingerprint() {
+		return (long) VERSION << 32
+				| decks << 16
+				| payoutNumerator << 12
+				| payoutDenominator << 8
+				| maxSplits << 4
+				| (hitSoft17 ? 8 : 0) | (doubleAfterSplit ? 4 : 0) | (surrender ? 2 : 0) | (insurance ? 1 : 0);
+	}
+
+	public long payout(int outcome, long bet) {
+		if (outcome == Round.BLACKJACK) {
+			return bet + bet * payoutNumerator / payoutDenominator;
+		}
+		else if (outcome == Round.WIN) {
+			return bet * 2;
+		}
+		else if (outcome == Round.PUSH) {
+			return bet;
+		}
+		else if (outcome == Round.SURRENDER) {
+			return bet / 2;
+		}
+		return 0;
+	}
+
+	public double getBlackjackPayout() {
+		return (double) payoutNumerator / payoutDenominator;
+	}
+
+	public int getDecks() {
+		return decks;
+	}
+
+	public boolean hitSoft17() {
+		return hitSoft17;
+	}
+
+	public boolean doubleAfterSplit() {
+		return doubleAfterSplit;
+	}
+
+	public boolean allowsSurrender() {
+		return surrender;
+	}
+
+	public boolean allowsInsurance() {
+		return insurance;
+	}
+
+	public int getMaxHands() {
+		return maxSplits + 1;
+	}
+}
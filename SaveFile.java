@@ -0,0 +1,89 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+
+class SaveFile {
+
+	private final static int MAGIC = 0x424A4B47;
+	private final static short VERSION = 3;
+	private final static int HEADER_SIZE = 6;
+	private final static String SUFFIX = ".game";
+	private final static Pattern NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+	private final Path path;
+	private Player player = null;
+	private Deck deck = null;
+
+	SaveFile(String fileName) {
+		path = Paths.get(fileName + SUFFIX);
+	}
+
+	// Names typed by remote players stay inside the saves directory.
+	SaveFile(Path directory, String name) {
+		if (!isValidName(name)) {
+			throw new IllegalArgumentException("Invalid save name: " + name);
+		}
+		path = directory.resolve(name + SUFFIX);
+	}
+
+	public static boolean isValidName(String name) {
+		return NAME.matcher(name).matches();
+	}
+
+	public void write(Player player, Deck deck) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + Player.BYTES + deck.byteSize());
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+		player.write(buffer);
+		deck.write(buffer);
+		buffer.flip();
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	public void read() throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			buffer = ByteBuffer.allocate((int) channel.size());
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				continue;
+			}
+		}
+		buffer.flip();
+
+		try {
+			if (buffer.getInt() != MAGIC) {
+				throw new IOException("Not a saved game: " + path);
+			}
+			short version = buffer.getShort();
+			if (version != VERSION) {
+				throw new IOException("Unsupported save version " + version + ": " + path);
+			}
+			player = Player.read(buffer);
+			deck = Deck.read(buffer);
+			if (buffer.hasRemaining()) {
+				throw new IOException("Corrupt save");
+			}
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated save: " + path, e);
+		}
+	}
+
+	public Player getPlayer() {
+		return player;
+	}
+
+	public Deck getDeck() {
+		return deck;
+	}
+}
@@ -0,0 +1,120 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+// Serves every table from one selector thread; sessions only use it while they have input to play.
+class Server {
+
+	private final static Path SAVES = Paths.get("saves");
+	private final static int BACKLOG = 1024;
+	private final static int READ_BUFFER = 4096;
+	private final static long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+	private final static long SWEEP = TimeUnit.SECONDS.toMillis(1);
+
+	private final int port;
+	private final RuleSet rules;
+
+	Server(int port, RuleSet rules) {
+		this.port = port;
+		this.rules = rules;
+	}
+
+	public void run() throws IOException {
+		Files.createDirectories(SAVES);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER);
+		try (Selector selector = Selector.open(); ServerSocketChannel server = ServerSocketChannel.open()) {
+			server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+			server.configureBlocking(false);
+			server.register(selector, SelectionKey.OP_ACCEPT);
+			System.out.println("Listening on port " + server.socket().getLocalPort());
+
+			long nextSweep = System.currentTimeMillis() + SWEEP;
+			while (true) {
+				selector.select(SWEEP);
+				long now = System.currentTimeMillis();
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if (key.isValid() && key.isAcceptable()) {
+						accept(selector, server, now);
+					}
+					else if (key.isValid()) {
+						serve(key, buffer, now);
+					}
+				}
+				if (now >= nextSweep) {
+					sweep(selector, now);
+					nextSweep = now + SWEEP;
+				}
+			}
+		}
+	}
+
+	private void accept(Selector selector, ServerSocketChannel server, long now) throws IOException {
+		SocketChannel channel;
+		while ((channel = server.accept()) != null) {
+			channel.configureBlocking(false);
+			SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+			Session session = new Session(channel, rules, SAVES, now);
+			key.attach(session);
+			try {
+				if (!session.start(key)) {
+					close(key);
+				}
+			} catch (IOException e) {
+				close(key);
+			}
+		}
+	}
+
+	private static void serve(SelectionKey key, ByteBuffer buffer, long now) {
+		Session session = (Session) key.attachment();
+		try {
+			boolean open = true;
+			if (key.isReadable()) {
+				open = session.read(key, buffer, now);
+			}
+			if (open && key.isWritable()) {
+				open = session.send(key);
+			}
+			if (!open) {
+				close(key);
+			}
+		} catch (IOException e) {
+			close(key);
+		} catch (RuntimeException e) {
+			System.out.println("Session error: " + e);
+			close(key);
+		}
+	}
+
+	// Drops clients that have not sent a line within IDLE_TIMEOUT.
+	private static void sweep(Selector selector, long now) {
+		for (SelectionKey key : selector.keys()) {
+			Object session = key.attachment();
+			if (session instanceof Session && now - ((Session) session).getLastActive() >= IDLE_TIMEOUT) {
+				close(key);
+			}
+		}
+	}
+
+	private static void close(SelectionKey key) {
+		key.cancel();
+		try {
+			key.channel().close();
+		} catch (IOException e) {
+			System.out.println("Error closing session: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,92 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+
+// One table on the server. The game only runs when the selector has read a whole line for it,
+// so an idle session is a few objects rather than a parked thread.
+class Session {
+
+	private final static int MAX_LINE = 1024;
+	private final static int MAX_PENDING = 1 << 20;
+
+	private final SocketChannel channel;
+	private final StringBuilder output = new StringBuilder();
+	private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+	private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<ByteBuffer>();
+	private final Terminal terminal;
+	private final Game game;
+	private int pendingBytes = 0;
+	private boolean open = true;
+	private long lastActive;
+
+	Session(SocketChannel channel, RuleSet rules, Path saves, long now) {
+		this.channel = channel;
+		this.terminal = new Terminal(output);
+		this.game = new Game(terminal, false, null, rules, saves);
+		this.lastActive = now;
+	}
+
+	// Runs the game up to its first question; false once the session should close.
+	public boolean start(SelectionKey key) throws IOException {
+		open = game.run();
+		return send(key);
+	}
+
+	public boolean read(SelectionKey key, ByteBuffer buffer, long now) throws IOException {
+		buffer.clear();
+		if (channel.read(buffer) < 0) {
+			return false;
+		}
+		lastActive = now;
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			byte next = buffer.get();
+			if (next == '\n') {
+				terminal.feed(line.toString(StandardCharsets.UTF_8));
+				line.reset();
+			}
+			else if (line.size() == MAX_LINE) {
+				return false;
+			}
+			else {
+				line.write(next);
+			}
+		}
+		if (open) {
+			open = game.run();
+		}
+		return send(key);
+	}
+
+	// Writes what the socket takes now and asks for OP_WRITE while anything is left over.
+	public boolean send(SelectionKey key) throws IOException {
+		if (output.length() > 0) {
+			ByteBuffer bytes = ByteBuffer.wrap(output.toString().getBytes(StandardCharsets.UTF_8));
+			pending.add(bytes);
+			pendingBytes += bytes.remaining();
+			output.setLength(0);
+		}
+		while (!pending.isEmpty()) {
+			ByteBuffer next = pending.peek();
+			pendingBytes -= channel.write(next);
+			if (next.hasRemaining()) {
+				break;
+			}
+			pending.remove();
+		}
+		if (pendingBytes > MAX_PENDING) {
+			return false;
+		}
+		key.interestOps(pending.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+		return open || !pending.isEmpty();
+	}
+
+	public long getLastActive() {
+		return lastActive;
+	}
+}
@@ -0,0 +1,85 @@
+import java.util.concurrent.locks.LockSupport;
+
+class ShoePipeline implements Runnable {
+
+	private final static int SPINS = 128;
+	private final static long PARK_NANOS = 10000;
+
+	private final ShoeRing ready;
+	private final ShoeRing spare;
+	private final Rng rand;
+	private final Thread thread;
+	private byte[] last;
+	private volatile boolean running = true;
+
+	// Continues the deck's own shuffle sequence: same rng state, each shoe shuffled from the previous one.
+	ShoePipeline(byte[] cards, Rng rand, int capacity) {
+		this.ready = new ShoeRing(capacity);
+		this.spare = new ShoeRing(capacity);
+		this.rand = rand;
+		this.last = cards;
+		for (int i = 0; i < capacity; i++) {
+			spare.offer(new byte[cards.length]);
+		}
+		thread = new Thread(this, "shoe-pipeline");
+		thread.setDaemon(true);
+	}
+
+	public void start() {
+		thread.start();
+	}
+
+	public void close() {
+		running = false;
+		LockSupport.unpark(thread);
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public byte[] exchange(byte[] used) {
+		byte[] shoe;
+		int idle = 0;
+		while ((shoe = ready.poll()) == null) {
+			idle = backOff(idle);
+		}
+		spare.offer(used);
+		return shoe;
+	}
+
+	@Override
+	public void run() {
+		int idle = 0;
+		while (running) {
+			byte[] shoe = spare.poll();
+			if (shoe == null) {
+				idle = backOff(idle);
+				continue;
+			}
+			idle = 0;
+			System.arraycopy(last, 0, shoe, 0, shoe.length);
+			for (int i = shoe.length - 1; i > 0; i--) {
+				int j = rand.nextInt(i + 1);
+				byte temp = shoe[i];
+				shoe[i] = shoe[j];
+				shoe[j] = temp;
+			}
+			while (running && !ready.offer(shoe)) {
+				idle = backOff(idle);
+			}
+			last = shoe;
+		}
+	}
+
+	private static int backOff(int idle) {
+		if (idle < SPINS) {
+			Thread.onSpinWait();
+		}
+		else {
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+		return idle + 1;
+	}
+}
@@ -0,0 +1,40 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded single-producer single-consumer ring; each index is written by one side only.
+class ShoeRing {
+
+	private final byte[][] slots;
+	private final int mask;
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+
+	ShoeRing(int capacity) {
+		if (Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+		}
+		slots = new byte[capacity][];
+		mask = capacity - 1;
+	}
+
+	public boolean offer(byte[] shoe) {
+		long position = tail.get();
+		if (position - head.get() == slots.length) {
+			return false;
+		}
+		slots[(int) position & mask] = shoe;
+		tail.lazySet(position + 1);
+		return true;
+	}
+
+	public byte[] poll() {
+		long position = head.get();
+		if (position == tail.get()) {
+			return null;
+		}
+		int index = (int) position & mask;
+		byte[] shoe = slots[index];
+		slots[index] = null;
+		head.lazySet(position + 1);
+		return shoe;
+	}
+}
@@ -0,0 +1,139 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class Simulation {
+
+	private final static long BET = Money.UNIT;
+	private final static long BANKROLL = Money.credits(1000000000000000L);
+	private final static double PENETRATION = 0.75;
+	private final static long SHARD_HANDS = 1 << 20;
+
+	private final long hands;
+	private final int threads;
+	private final long seed;
+	private final RuleSet rules;
+	private int seats = 1;
+	private int prefetch = 0;
+	private Path history = null;
+	private Path columns = null;
+	private Metrics metrics = null;
+
+	Simulation(long hands, int threads, long seed, RuleSet rules) {
+		this.hands = hands;
+		this.threads = threads;
+		this.seed = seed;
+		this.rules = rules;
+	}
+
+	public void setSeats(int seats) {
+		this.seats = seats;
+	}
+
+	public void setPrefetch(int shoes) {
+		this.prefetch = shoes;
+	}
+
+	public void setHistory(Path history) {
+		this.history = history;
+	}
+
+	public void setColumns(Path columns) {
+		this.columns = columns;
+	}
+
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public static long shards(long hands) {
+		return (hands + SHARD_HANDS - 1) / SHARD_HANDS;
+	}
+
+	public Statistics run() {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		long shards = shards(hands);
+		ArrayList<Future<Statistics>> results = new ArrayList<Future<Statistics>>();
+
+		for (long shard = 0; shard < shards; shard++) {
+			final long index = shard;
+			results.add(pool.submit(new Callable<Statistics>() {
+				@Override
+				public Statistics call() throws IOException {
+					return runShard(index);
+				}
+			}));
+		}
+
+		Statistics statistics = new Statistics();
+		try {
+			for (Future<Statistics> result : results) {
+				statistics.merge(result.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+		return statistics;
+	}
+
+	public Statistics runShard(long shard) throws IOException {
+		long shardHands = Math.min(SHARD_HANDS, hands - shard * SHARD_HANDS);
+		long shardSeed = Rng.seed(seed, shard);
+		HandLog log = (history != null) ? new HandLog(history, "shard-" + shard) : null;
+		ColumnFile rows = null;
+		try {
+			if (columns != null) {
+				Files.createDirectories(columns);
+				rows = new ColumnFile(columns.resolve(String.format("shard-%06d%s", shard, ColumnFile.SUFFIX)));
+			}
+			return simulate(shardHands, shardSeed, log, rows);
+		} finally {
+			if (rows != null) {
+				rows.close();
+			}
+			if (log != null) {
+				log.close();
+			}
+		}
+	}
+
+	private Statistics simulate(long hands, long seed, HandLog log, ColumnFile rows) {
+		Statistics statistics = new Statistics();
+		Strategy strategy = new BasicStrategy(rules);
+		Player[] players = new Player[seats];
+		for (int seat = 0; seat < seats; seat++) {
+			players[seat] = new Player(BANKROLL);
+		}
+		Deck deck = new Deck(rules.getDecks(), PENETRATION, seed);
+		Round round = new Round(deck, players, new Dealer(rules), null);
+		round.setLog(log);
+		round.setMetrics(metrics);
+
+		ShoePipeline pipeline = (prefetch > 0) ? deck.startPipeline(prefetch) : null;
+		try {
+			for (long i = 0; i < hands; i++) {
+				round.play(BET, strategy);
+				statistics.record(round, BET);
+				if (rows != null) {
+					rows.append(round, BET);
+				}
+			}
+		} finally {
+			round.flushMetrics();
+			if (pipeline != null) {
+				pipeline.close();
+			}
+		}
+		return statistics;
+	}
+}
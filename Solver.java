@@ -0,0 +1,244 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class Solver {
+
+	public final static int STAND = 0;
+	public final static int HIT = 1;
+	public final static int DOUBLE = 2;
+	public final static int SPLIT = 3;
+	public final static int SURRENDER = 4;
+	public final static int ACTIONS = 5;
+
+	private final static int BLACKJACK = 21;
+	private final static int ALT_ACE_VALUE = 10;
+	private final static int RANKS = DealerProbabilities.RANKS;
+	private final static char[] ACTION_NAMES = {'S', 'H', 'D', 'P', 'R'};
+
+	private final DealerProbabilities dealer;
+	private final RuleSet rules;
+
+	Solver(DealerProbabilities dealer, RuleSet rules) {
+		this.dealer = dealer;
+		this.rules = rules;
+	}
+
+	public double[] evaluate(int card1, int card2, int upCard, int[] counts) {
+		return evaluate(card1, card2, upCard, counts.clone(), new HashMap<Long, Double>());
+	}
+
+	public String table(int threads) {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ArrayList<Future<char[]>> columns = new ArrayList<Future<char[]>>(RANKS);
+		final int[][] hands = startingHands();
+
+		for (int upCard = 1; upCard <= RANKS; upCard++) {
+			final int[] counts = DealerProbabilities.shoe(rules.getDecks());
+			final int column = upCard;
+			counts[upCard - 1]--;
+			columns.add(pool.submit(new Callable<char[]>() {
+				@Override
+				public char[] call() {
+					return solveColumn(hands, column, counts);
+				}
+			}));
+		}
+
+		char[][] actions = new char[RANKS][];
+		try {
+			for (int upCard = 1; upCard <= RANKS; upCard++) {
+				actions[upCard - 1] = columns.get(upCard - 1).get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return "";
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+
+		StringBuilder table = new StringBuilder("Hand    2 3 4 5 6 7 8 9 T A\n");
+		for (int row = 0; row < hands.length; row++) {
+			table.append(String.format("%-6s", name(hands[row])));
+			for (int upCard = 2; upCard <= RANKS + 1; upCard++) {
+				table.append(' ').append(actions[(upCard - 1) % RANKS][row]);
+			}
+			table.append('\n');
+		}
+		return table.toString();
+	}
+
+	private char[] solveColumn(int[][] hands, int upCard, int[] counts) {
+		HashMap<Long, Double> memo = new HashMap<Long, Double>();
+		char[] actions = new char[hands.length];
+		for (int row = 0; row < hands.length; row++) {
+			int[] hand = hands[row];
+			counts[hand[0] - 1]--;
+			counts[hand[1] - 1]--;
+			double[] values = evaluate(hand[0], hand[1], upCard, counts, memo);
+			counts[hand[0] - 1]++;
+			counts[hand[1] - 1]++;
+
+			int best = STAND;
+			for (int action = HIT; action < ACTIONS; action++) {
+				if (values[action] > values[best]) {
+					best = action;
+				}
+			}
+			actions[row] = ACTION_NAMES[best];
+		}
+		return actions;
+	}
+
+	private double[] evaluate(int card1, int card2, int upCard, int[] counts, HashMap<Long, Double> memo) {
+		long key = DealerProbabilities.key(counts);
+		int cardsLeft = cardsLeft(counts);
+		int hardValue = card1 + card2;
+		boolean ace = card1 == 1 || card2 == 1;
+
+		double[] values = new double[ACTIONS];
+		values[STAND] = (value(hardValue, ace) == BLACKJACK) ? rules.getBlackjackPayout() : stand(value(hardValue, ace), upCard, counts);
+		values[HIT] = hit(hardValue, ace, upCard, counts, key, cardsLeft, memo);
+		values[DOUBLE] = doubleDown(hardValue, ace, upCard, counts, cardsLeft);
+		values[SPLIT] = (card1 == card2 && rules.getMaxHands() > 1) ? split(card1, upCard, counts) : Double.NEGATIVE_INFINITY;
+		values[SURRENDER] = rules.allowsSurrender() ? -0.5 : Double.NEGATIVE_INFINITY;
+		return values;
+	}
+
+	private double split(int card, int upCard, int[] counts) {
+		HashMap<Long, Double> memo = new HashMap<Long, Double>();
+		int cardsLeft = cardsLeft(counts);
+		double value = 0;
+
+		for (int next = 1; next <= RANKS; next++) {
+			if (counts[next - 1] == 0) {
+				continue;
+			}
+			double probability = (double) counts[next - 1] / cardsLeft;
+			int hardValue = card + next;
+			boolean ace = card == 1 || next == 1;
+			counts[next - 1]--;
+			if (card == 1) {
+				value += probability * stand(value(hardValue, ace), upCard, counts);
+			}
+			else {
+				long key = DealerProbabilities.key(counts);
+				double best = Math.max(stand(value(hardValue, ace), upCard, counts),
+						hit(hardValue, ace, upCard, counts, key, cardsLeft - 1, memo));
+				if (rules.doubleAfterSplit()) {
+					best = Math.max(best, doubleDown(hardValue, ace, upCard, counts, cardsLeft - 1));
+				}
+				value += probability * best;
+			}
+			counts[next - 1]++;
+		}
+		return 2 * value;
+	}
+
+	private double hit(int hardValue, boolean ace, int upCard, int[] counts, long key, int cardsLeft, HashMap<Long, Double> memo) {
+		double value = 0;
+		for (int card = 1; card <= RANKS; card++) {
+			if (counts[card - 1] == 0) {
+				continue;
+			}
+			double probability = (double) counts[card - 1] / cardsLeft;
+			counts[card - 1]--;
+			value += probability * best(hardValue + card, ace || card == 1, upCard, counts,
+					key - DealerProbabilities.unit(card), cardsLeft - 1, memo);
+			counts[card - 1]++;
+		}
+		return value;
+	}
+
+	private double best(int hardValue, boolean ace, int upCard, int[] counts, long key, int cardsLeft, HashMap<Long, Double> memo) {
+		int value = value(hardValue, ace);
+		if (value > BLACKJACK) {
+			return -1;
+		}
+		Double cached = memo.get(key);
+		if (cached != null) {
+			return cached;
+		}
+
+		double best = stand(value, upCard, counts);
+		if (value < BLACKJACK) {
+			best = Math.max(best, hit(hardValue, ace, upCard, counts, key, cardsLeft, memo));
+		}
+		memo.put(key, best);
+		return best;
+	}
+
+	private double doubleDown(int hardValue, boolean ace, int upCard, int[] counts, int cardsLeft) {
+		double value = 0;
+		for (int card = 1; card <= RANKS; card++) {
+			if (counts[card - 1] == 0) {
+				continue;
+			}
+			double probability = (double) counts[card - 1] / cardsLeft;
+			counts[card - 1]--;
+			value += probability * stand(value(hardValue + card, ace || card == 1), upCard, counts);
+			counts[card - 1]++;
+		}
+		return 2 * value;
+	}
+
+	private double stand(int value, int upCard, int[] counts) {
+		if (value > BLACKJACK) {
+			return -1;
+		}
+		double[] distribution = dealer.distribution(upCard, counts);
+		double expected = distribution[DealerProbabilities.BUST];
+		for (int outcome = 0; outcome < DealerProbabilities.BUST; outcome++) {
+			int dealerValue = Dealer.DEALER_HIT + outcome;
+			expected += (value > dealerValue) ? distribution[outcome] : (value < dealerValue) ? -distribution[outcome] : 0;
+		}
+		return expected;
+	}
+
+	private static int value(int hardValue, boolean ace) {
+		return (ace && hardValue + ALT_ACE_VALUE <= BLACKJACK) ? hardValue + ALT_ACE_VALUE : hardValue;
+	}
+
+	private static int cardsLeft(int[] counts) {
+		int cardsLeft = 0;
+		for (int count : counts) {
+			cardsLeft += count;
+		}
+		return cardsLeft;
+	}
+
+	private static int[][] startingHands() {
+		ArrayList<int[]> hands = new ArrayList<int[]>();
+		for (int total = 5; total <= 19; total++) {
+			int high = Math.min(RANKS, total - 2);
+			if (high * 2 == total) {
+				high--;
+			}
+			hands.add(new int[] {high, total - high});
+		}
+		for (int card = 2; card <= 9; card++) {
+			hands.add(new int[] {1, card});
+		}
+		for (int card = 2; card <= RANKS; card++) {
+			hands.add(new int[] {card, card});
+		}
+		hands.add(new int[] {1, 1});
+		return hands.toArray(new int[hands.size()][]);
+	}
+
+	private static String name(int[] hand) {
+		if (hand[0] == hand[1]) {
+			return (hand[0] == 1) ? "A,A" : hand[0] + "," + hand[1];
+		}
+		else if (hand[0] == 1) {
+			return "A," + hand[1];
+		}
+		return String.valueOf(hand[0] + hand[1]);
+	}
+}
@@ -0,0 +1,223 @@
+import java.nio.ByteBuffer;
+
+class Statistics {
+
+	private final static int RANKS = DealerProbabilities.RANKS;
+	private final static int CELLS = Hand.CATEGORIES * RANKS;
+	private final static int OUTCOMES = Round.BLACKJACK - Round.SURRENDER + 1;
+	private final static String[] OUTCOME_NAMES = {"Surr", "Lose", "Push", "Win", "BJ"};
+	private final static double Z_95 = 1.959964;
+
+	public final static int BYTES = Ledger.BYTES + 8 * 7 + 8 * CELLS * (3 + OUTCOMES);
+
+	private final Ledger ledger = new Ledger();
+	private final long[] cellRounds = new long[CELLS];
+	private final long[] cellStaked = new long[CELLS];
+	private final long[] cellNet = new long[CELLS];
+	private final long[] cellOutcomes = new long[CELLS * OUTCOMES];
+	private long hands = 0;
+	private long wins = 0;
+	private long losses = 0;
+	private long pushes = 0;
+	private long blackjacks = 0;
+	private long surrenders = 0;
+	private long wagered = 0;
+
+	@Override
+	public String toString() {
+		// Column scans carry no per-hand records
+		String handCounts = (hands == 0) ? "" : "Hands: " + hands + "\n"
+				+ "Wins: " + wins + " (" + percent(wins) + "%)\n"
+				+ "Losses: " + losses + " (" + percent(losses) + "%)\n"
+				+ "Pushes: " + pushes + " (" + percent(pushes) + "%)\n"
+				+ "Blackjacks: " + blackjacks + " (" + percent(blackjacks) + "%)\n"
+				+ "Surrenders: " + surrenders + " (" + percent(surrenders) + "%)\n"
+				+ "Wagered: " + Money.format(wagered) + " unit(s)\n";
+		return "Rounds: " + getRounds() + "\n"
+				+ handCounts
+				+ "Net: " + Money.format(getNet()) + " unit(s)\n"
+				+ "House edge: " + (getHouseEdge() * 100) + "%\n"
+				+ "Std dev: " + getStandardDeviation() + " per unit staked\n"
+				+ "House edge 95% CI: [" + ((getHouseEdge() - getMargin()) * 100) + "%, "
+				+ ((getHouseEdge() + getMargin()) * 100) + "%]";
+	}
+
+	// Player return per unit staked by initial hand and dealer up-card, then outcome counts by up-card.
+	public String breakdown() {
+		StringBuilder table = new StringBuilder("Hand         2       3       4       5       6       7       8       9       T       A\n");
+		for (int category = 0; category < Hand.CATEGORIES; category++) {
+			boolean seen = false;
+			for (int upCard = 1; upCard <= RANKS; upCard++) {
+				seen |= cellRounds[cell(category, upCard)] > 0;
+			}
+			if (!seen) {
+				continue;
+			}
+			table.append(String.format("%-6s", Hand.categoryName(category)));
+			for (int column = 2; column <= RANKS + 1; column++) {
+				int cell = cell(category, (column - 1) % RANKS + 1);
+				table.append((cellStaked[cell] == 0) ? "       -"
+						: String.format(" %7.3f", (double) cellNet[cell] / cellStaked[cell]));
+			}
+			table.append('\n');
+		}
+
+		table.append("\nUp   ");
+		for (String name : OUTCOME_NAMES) {
+			table.append(String.format(" %10s", name));
+		}
+		table.append('\n');
+		for (int column = 2; column <= RANKS + 1; column++) {
+			int upCard = (column - 1) % RANKS + 1;
+			table.append(String.format("%-5s", (upCard == 1) ? "A" : (upCard == RANKS) ? "T" : String.valueOf(upCard)));
+			for (int outcome = 0; outcome < OUTCOMES; outcome++) {
+				long count = 0;
+				for (int category = 0; category < Hand.CATEGORIES; category++) {
+					count += cellOutcomes[cell(category, upCard) * OUTCOMES + outcome];
+				}
+				table.append(String.format(" %10d", count));
+			}
+			table.append('\n');
+		}
+		return table.toString();
+	}
+
+	public void record(Round round, long bet) {
+		int upCard = round.getDealerHand().getUpCard().getValue();
+		long delta = 0;
+		for (int seat = 0; seat < round.getSeats(); seat++) {
+			Player player = round.getPlayer(seat);
+			int category = round.getCategory(seat);
+			long seatDelta = 0;
+			for (int i = 0; i < player.getHandCount(); i++) {
+				seatDelta += record(player.getHand(i));
+				recordOutcome(category, upCard, player.getHand(i).getOutcome());
+			}
+			recordSeat(category, upCard, bet, seatDelta);
+			delta += seatDelta;
+		}
+		recordRound(bet * round.getSeats(), delta);
+	}
+
+	public void recordSeat(int category, int upCard, long stake, long delta) {
+		int cell = cell(category, upCard);
+		cellRounds[cell]++;
+		cellStaked[cell] += stake;
+		cellNet[cell] += delta;
+	}
+
+	public void recordOutcome(int category, int upCard, int outcome) {
+		cellOutcomes[cell(category, upCard) * OUTCOMES + outcome - Round.SURRENDER]++;
+	}
+
+	public void recordRound(long stake, long delta) {
+		ledger.record(stake, delta);
+	}
+
+	private long record(Hand hand) {
+		recordHand(hand.getOutcome(), hand.getBet());
+		return hand.getWalletChange() - hand.getBet() - hand.getInsurance();
+	}
+
+	public void recordHand(int outcome, long bet) {
+		hands++;
+		if (outcome == Round.LOSE) {
+			losses++;
+		}
+		else if (outcome == Round.PUSH) {
+			pushes++;
+		}
+		else if (outcome == Round.WIN) {
+			wins++;
+		}
+		else if (outcome == Round.BLACKJACK) {
+			blackjacks++;
+		}
+		else if (outcome == Round.SURRENDER) {
+			surrenders++;
+		}
+		wagered += bet;
+	}
+
+	public static Statistics read(ByteBuffer buffer) {
+		Statistics statistics = new Statistics();
+		statistics.ledger.read(buffer);
+		statistics.hands = buffer.getLong();
+		statistics.wins = buffer.getLong();
+		statistics.losses = buffer.getLong();
+		statistics.pushes = buffer.getLong();
+		statistics.blackjacks = buffer.getLong();
+		statistics.surrenders = buffer.getLong();
+		statistics.wagered = buffer.getLong();
+		buffer.asLongBuffer().get(statistics.cellRounds).get(statistics.cellStaked).get(statistics.cellNet)
+				.get(statistics.cellOutcomes);
+		buffer.position(buffer.position() + 8 * CELLS * (3 + OUTCOMES));
+		return statistics;
+	}
+
+	public void write(ByteBuffer buffer) {
+		ledger.write(buffer);
+		buffer.putLong(hands);
+		buffer.putLong(wins);
+		buffer.putLong(losses);
+		buffer.putLong(pushes);
+		buffer.putLong(blackjacks);
+		buffer.putLong(surrenders);
+		buffer.putLong(wagered);
+		buffer.asLongBuffer().put(cellRounds).put(cellStaked).put(cellNet).put(cellOutcomes);
+		buffer.position(buffer.position() + 8 * CELLS * (3 + OUTCOMES));
+	}
+
+	public void merge(Statistics other) {
+		ledger.merge(other.ledger);
+		hands += other.hands;
+		wins += other.wins;
+		losses += other.losses;
+		pushes += other.pushes;
+		blackjacks += other.blackjacks;
+		surrenders += other.surrenders;
+		wagered += other.wagered;
+		for (int cell = 0; cell < CELLS; cell++) {
+			cellRounds[cell] += other.cellRounds[cell];
+			cellStaked[cell] += other.cellStaked[cell];
+			cellNet[cell] += other.cellNet[cell];
+		}
+		for (int i = 0; i < cellOutcomes.length; i++) {
+			cellOutcomes[i] += other.cellOutcomes[i];
+		}
+	}
+
+	public long getRounds() {
+		return ledger.getRounds();
+	}
+
+	public long getHands() {
+		return hands;
+	}
+
+	public long getNet() {
+		return ledger.getNet();
+	}
+
+	public double getHouseEdge() {
+		long staked = ledger.getStaked();
+		return (staked == 0) ? 0 : (double) -ledger.getNet() / staked;
+	}
+
+	public double getStandardDeviation() {
+		return Math.sqrt(ledger.getVariance());
+	}
+
+	private double getMargin() {
+		long rounds = getRounds();
+		return (rounds == 0) ? 0 : Z_95 * getStandardDeviation() / Math.sqrt(rounds);
+	}
+
+	private static int cell(int category, int upCard) {
+		return category * RANKS + upCard - 1;
+	}
+
+	private double percent(long count) {
+		return (hands == 0) ? 0 : (count * 100.0) / hands;
+	}
+}
@@ -0,0 +1,16 @@
+
+interface Strategy {
+
+	enum Move {HIT,STAND,DOUBLE}
+
+	boolean insurance(Hand hand, Card upCard);
+
+	boolean surrender(Hand hand, Card upCard);
+
+	boolean splitAces(Hand hand, Card upCard);
+
+	boolean split(Hand hand, Card upCard);
+
+	// canDouble is false when the rules or the wallet rule out a double, so the chart's fallback applies.
+	Move move(Hand hand, Card upCard, boolean canDouble);
+}
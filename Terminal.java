@@ -0,0 +1,263 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Scanner;
+
+class Terminal {
+
+	// INTERACTIVE prints every line as it happens, QUIET prints only reports, BATCH buffers a round at a time.
+	enum Mode {INTERACTIVE, QUIET, BATCH}
+
+	private final static int BUFFER = 1 << 16;
+	private final static String NEWLINE = System.lineSeparator();
+
+	private final Scanner scanner;
+	private final ArrayDeque<String> tokens;
+	private final PrintStream out;
+	private final Mode mode;
+	private final StringBuilder line = new StringBuilder(128);
+	private final StringBuilder pending;
+	private final ByteBuffer bytes;
+	private final CharsetEncoder encoder;
+	private final WritableByteChannel channel;
+
+	Terminal(InputStream in, PrintStream out) {
+		this(in, out, Mode.INTERACTIVE);
+	}
+
+	// Input arrives through feed() and output collects in the given builder for the caller to send,
+	// e.g. from a server's selector loop.
+	Terminal(StringBuilder output) {
+		this.scanner = null;
+		this.tokens = new ArrayDeque<String>();
+		this.out = null;
+		this.mode = Mode.BATCH;
+		this.pending = output;
+		this.bytes = null;
+		this.encoder = null;
+		this.channel = null;
+	}
+
+	Terminal(InputStream in, PrintStream out, Mode mode) {
+		this.scanner = new Scanner(in, "UTF-8");
+		this.tokens = null;
+		this.out = out;
+		this.mode = mode;
+		boolean batch = mode == Mode.BATCH;
+		this.pending = batch ? new StringBuilder(BUFFER) : null;
+		this.bytes = batch ? ByteBuffer.allocate(BUFFER) : null;
+		// A malformed char, e.g. a lone surrogate, is written as '?' instead of stalling the encode loop.
+		this.encoder = batch ? StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE) : null;
+		this.channel = batch ? Channels.newChannel(out) : null;
+	}
+
+	// Null for anything but a mode name, in any case.
+	public static Mode mode(String name) {
+		for (Mode mode : Mode.values()) {
+			if (mode.name().equalsIgnoreCase(name)) {
+				return mode;
+			}
+		}
+		return null;
+	}
+
+	// Only a blocking console can pause for a person without holding up anyone else.
+	public boolean isPaced() {
+		return mode == Mode.INTERACTIVE && scanner != null;
+	}
+
+	public void println(String text) {
+		if (mode == Mode.INTERACTIVE) {
+			out.println(text);
+		}
+		else if (mode == Mode.BATCH) {
+			append(text).append(NEWLINE);
+		}
+	}
+
+	public void print(String text) {
+		if (mode == Mode.INTERACTIVE) {
+			out.print(text);
+			out.flush();
+		}
+		else if (mode == Mode.BATCH) {
+			append(text);
+		}
+	}
+
+	// The parts are joined in the reused line buffer, and not at all when the mode drops the line.
+	public void println(String first, String second) {
+		println(first, second, "");
+	}
+
+	public void println(String first, Object second, String third) {
+		if (mode == Mode.QUIET) {
+			return;
+		}
+		line.setLength(0);
+		line.append(first).append(second).append(third);
+		printLine();
+	}
+
+	public void println(String label, long number) {
+		if (mode == Mode.QUIET) {
+			return;
+		}
+		line.setLength(0);
+		line.append(label).append(number);
+		printLine();
+	}
+
+	public void printCredits(String before, long amount, String after) {
+		if (mode == Mode.QUIET) {
+			return;
+		}
+		line.setLength(0);
+		Money.appendTo(line.append(before), amount).append(after);
+		printLine();
+	}
+
+	// Printed in every mode, e.g. the final wallet when a game ends.
+	public void report(String text) {
+		if (mode == Mode.QUIET) {
+			out.println(text);
+		}
+		else {
+			println(text);
+		}
+	}
+
+	public void reportCredits(String before, long amount, String after) {
+		line.setLength(0);
+		Money.appendTo(line.append(before), amount).append(after);
+		if (mode == Mode.QUIET) {
+			out.println(line);
+		}
+		else {
+			printLine();
+		}
+	}
+
+	public void printHand(String label, Hand hand, boolean hide) {
+		if (mode == Mode.QUIET) {
+			return;
+		}
+		line.setLength(0);
+		hand.appendTo(line.append(label), hide);
+		printLine();
+	}
+
+	public void printHands(Player player) {
+		if (mode == Mode.QUIET) {
+			return;
+		}
+		line.setLength(0);
+		player.appendTo(line);
+		printLine();
+	}
+
+	// Batch output reaches the stream once per round.
+	public void endRound() {
+		if (mode == Mode.BATCH) {
+			flush();
+		}
+	}
+
+	public void flush() {
+		if (mode != Mode.BATCH) {
+			out.flush();
+			return;
+		}
+		if (channel == null) {
+			return;
+		}
+		CharBuffer chars = CharBuffer.wrap(pending);
+		encoder.reset();
+		CoderResult result;
+		do {
+			result = encoder.encode(chars, bytes, true);
+			if (result.isOverflow() || !chars.hasRemaining()) {
+				drain();
+			}
+		} while (chars.hasRemaining());
+		pending.setLength(0);
+		out.flush();
+	}
+
+	public void feed(String line) {
+		for (String token : line.trim().split("\\s+")) {
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+	}
+
+	// A stream-backed terminal always has input, blocking for it if need be.
+	public boolean hasNext() {
+		return scanner != null || !tokens.isEmpty();
+	}
+
+	// Buffered output goes out before blocking, so a batch prompt is visible while it waits.
+	public String next() {
+		if (scanner == null) {
+			return tokens.remove();
+		}
+		if (mode == Mode.BATCH && pending.length() > 0) {
+			flush();
+		}
+		return scanner.next();
+	}
+
+	// Reads one answer to a y/n question; null, after asking again, for anything else.
+	public Boolean readYesNo() {
+		String input = next();
+		if (input.equals("y")) {
+			return Boolean.TRUE;
+		}
+		else if (input.equals("n")) {
+			return Boolean.FALSE;
+		}
+		println("Enter either 'y' or 'n'.");
+		return null;
+	}
+
+	private void printLine() {
+		if (mode == Mode.INTERACTIVE) {
+			out.println(line);
+		}
+		else {
+			append(line).append(NEWLINE);
+		}
+	}
+
+	private StringBuilder append(CharSequence text) {
+		if (pending.length() + text.length() > BUFFER) {
+			flush();
+		}
+		return pending.append(text);
+	}
+
+	private void drain() {
+		bytes.flip();
+		try {
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			bytes.clear();
+		}
+	}
+}